@@ -0,0 +1,36 @@
+package com.danielvizzini.util;
+
+/**
+ * Branch and bound that stops when a timeout passes or the thread is interrupted, keeping the best packing found so far.<br/>
+ * Starts from the greedy packing, so even a search stopped at once returns a sensible one. The upper bound is the packing's
+ * own profit if the search finished, and the fractional (Dantzig) bound of the whole instance otherwise.
+ * Holds the outcome of its last solve, so each Knapsack needs its own instance.
+ */
+final class AnytimeKnapsackEngine extends KnapsackEngine {
+
+	private final long timeout;
+	private boolean complete = false;
+
+	/**
+	 * @param timeout nanoseconds each solve may run, at least 1
+	 */
+	AnytimeKnapsackEngine(long timeout) {
+		if (timeout < 1) throw new IllegalArgumentException("timeout must be positive");
+		this.timeout = timeout;
+	}
+
+	@Override
+	boolean[] solve(double[] profits, int[] weights, int capacity) {
+		boolean[] take = new boolean[profits.length];
+		this.complete = BranchAndBoundKnapsackEngine.search(profits, weights, capacity, this.timeout, 0, take);
+		return take;
+	}
+
+	@Override
+	double upperBound(double[] profits, int[] weights, int capacity, boolean[] take) {
+		double profit = totalProfit(profits, take);
+		if (this.complete) return profit;
+		return Math.max(profit, new KnapsackRelaxation(profits, weights, capacity).bound(0, capacity));
+	}
+
+}
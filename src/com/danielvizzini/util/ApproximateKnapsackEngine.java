@@ -0,0 +1,184 @@
+package com.danielvizzini.util;
+
+/**
+ * Fully polynomial-time approximation scheme: profits are divided by K = epsilon * L / N and rounded down, where L, the larger of
+ * the greedy packing's profit and the largest single profit, is at most the optimum, and the rounded instance is solved exactly
+ * by a dynamic program indexed by profit.<br/>
+ * The fractional bound is at most 2L, so the rounded optimum is below U = 2N / epsilon and the program needs only U columns.
+ * The packed items are reconstructed by divide and conquer, like LinearKnapsackEngine, instead of from a decision table.
+ * The packing is within (1 - epsilon) of optimal, in O(N^2 / epsilon) time and O(N / epsilon) ints whatever the capacity.
+ */
+final class ApproximateKnapsackEngine extends KnapsackEngine {
+
+	/**
+	 * Most profit columns the dynamic program may use, about N / epsilon
+	 */
+	static final int MAX_PROFIT_COLUMNS = 1 << 27;
+
+	// minimum weight of a profit no packing within capacity reaches
+	private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	private final double epsilon;
+
+	/**
+	 * @param epsilon fraction of the optimal profit that may be given up, strictly between 0 and 1
+	 */
+	ApproximateKnapsackEngine(double epsilon) {
+		if (!(epsilon > 0 && epsilon < 1)) throw new IllegalArgumentException("epsilon must be strictly between 0 and 1");
+		this.epsilon = epsilon;
+	}
+
+	@Override
+	boolean[] solve(double[] profits, int[] weights, int capacity) {
+
+		int N = profits.length;
+		if (N != weights.length) throw new IllegalArgumentException("weights and profits arrays must be of equal length");
+		boolean[] take = new boolean[N];
+
+		KnapsackRelaxation relaxation = new KnapsackRelaxation(profits, weights, capacity);
+		double K = scale(relaxation, capacity);
+		if (K == 0) return take;
+
+		//no packing is worth more than the fractional bound, so no rounded profit above it needs a column
+		double columns = Math.floor(relaxation.bound(0, capacity) / K) + 1;
+		if (columns > MAX_PROFIT_COLUMNS) {
+			throw new IllegalArgumentException("epsilon of " + this.epsilon + " is too small for " + relaxation.size()
+					+ " items, it would need " + (long) columns + " profit columns, more than " + MAX_PROFIT_COLUMNS);
+		}
+		int U = (int) columns - 1;
+
+		// items[i], rounded[i] and itemWeights[i] = index, rounded profit and weight of the i-th item worth at least K
+		int[] items = new int[relaxation.size()];
+		int[] rounded = new int[items.length];
+		int[] itemWeights = new int[items.length];
+		int M = 0;
+		for (int k = 0; k < relaxation.size(); k++) {
+			long profit = (long) Math.floor(relaxation.profit(k) / K);
+			if (profit < 1) continue;
+			items[M] = relaxation.item(k);
+			rounded[M] = (int) Math.min(profit, U + 1);
+			itemWeights[M] = relaxation.weight(k);
+			M++;
+		}
+
+		//most rounded profit whose min weight fits, then the items that reach it
+		int[] front = new int[U + 1];
+		int[] back = new int[U + 1];
+		fillRow(rounded, itemWeights, 0, M, U, capacity, front);
+		int best = U;
+		while (front[best] == UNREACHABLE) best--;
+		split(rounded, itemWeights, 0, M, best, capacity, front, back, items, take);
+		return take;
+
+	}
+
+	/**
+	 * Least of three bounds: the fractional (Dantzig) bound, the (1 - epsilon) guarantee, and the rounded optimum plus the
+	 * most profit rounding can have lost, K for each item.
+	 */
+	@Override
+	double upperBound(double[] profits, int[] weights, int capacity, boolean[] take) {
+
+		double profit = totalProfit(profits, take);
+		KnapsackRelaxation relaxation = new KnapsackRelaxation(profits, weights, capacity);
+		double K = scale(relaxation, capacity);
+		if (K == 0) return profit;
+
+		long roundedProfit = 0;
+		for (int n = 0; n < take.length; n++) {
+			if (take[n] && profits[n] > 0) roundedProfit += (long) Math.floor(profits[n] / K);
+		}
+
+		double forReturn = relaxation.bound(0, capacity);
+		forReturn = Math.min(forReturn, profit / (1 - this.epsilon));
+		forReturn = Math.min(forReturn, K * (roundedProfit + relaxation.size()));
+		return Math.max(forReturn, profit);
+
+	}
+
+	/**
+	 * @return K, the amount of profit each unit of rounded profit stands for, or 0 if no item can be packed
+	 */
+	private double scale(KnapsackRelaxation relaxation, int capacity) {
+
+		int candidates = relaxation.size();
+		if (candidates == 0) return 0;
+
+		// L = larger of the greedy packing's profit and the largest profit, both no more than the optimum
+		double greedy = 0;
+		double maxProfit = 0;
+		long left = capacity;
+		for (int k = 0; k < candidates; k++) {
+			maxProfit = Math.max(maxProfit, relaxation.profit(k));
+			if (relaxation.weight(k) <= left) {
+				left -= relaxation.weight(k);
+				greedy += relaxation.profit(k);
+			}
+		}
+		return this.epsilon * Math.max(greedy, maxProfit) / candidates;
+
+	}
+
+	/**
+	 * Marks which of items from..to-1 are taken in a packing of the least weight with rounded profit exactly target
+	 * @param capacity weight that packing is known not to exceed
+	 */
+	private static void split(int[] rounded, int[] weights, int from, int to, int target, int capacity, int[] front, int[] back, int[] items, boolean[] take) {
+
+		if (target == 0) return;
+		if (to - from == 1) {
+			take[items[from]] = true;
+			return;
+		}
+
+		// front[p] = min weight of the first half with rounded profit exactly p
+		// back[p] = min weight of the second half with rounded profit exactly p
+		int mid = (from + to) >>> 1;
+		fillRow(rounded, weights, from, mid, target, capacity, front);
+		fillRow(rounded, weights, mid, to, target, capacity, back);
+
+		// give the first half the profit where both halves together are lightest
+		int best = -1;
+		long bestWeight = Long.MAX_VALUE;
+		for (int p = 0; p <= target; p++) {
+			if (front[p] == UNREACHABLE || back[target - p] == UNREACHABLE) continue;
+			long weight = (long) front[p] + back[target - p];
+			if (weight < bestWeight) {
+				bestWeight = weight;
+				best = p;
+			}
+		}
+
+		//rows are no longer needed, so the recursion can reuse them
+		int frontCapacity = front[best];
+		int backCapacity = back[target - best];
+		split(rounded, weights, from, mid, best, frontCapacity, front, back, items, take);
+		split(rounded, weights, mid, to, target - best, backCapacity, front, back, items, take);
+
+	}
+
+	/**
+	 * Fills row[0..T] with the min weight, up to capacity, of packing items from..to-1 with each rounded profit exactly
+	 */
+	private static void fillRow(int[] rounded, int[] weights, int from, int to, int T, int capacity, int[] row) {
+		row[0] = 0;
+		for (int p = 1; p <= T; p++) {
+			row[p] = UNREACHABLE;
+		}
+		int reachable = 0;
+		for (int i = from; i < to; i++) {
+			int profit = rounded[i];
+			int weight = weights[i];
+			reachable = (int) Math.min((long) reachable + profit, T);
+
+			// walk down so that row[p - profit] still holds the row before item i
+			for (int p = reachable; p >= profit; p--) {
+				int before = row[p - profit];
+				if (before != UNREACHABLE && (long) before + weight <= capacity && before + weight < row[p]) {
+					row[p] = before + weight;
+				}
+			}
+		}
+	}
+
+}
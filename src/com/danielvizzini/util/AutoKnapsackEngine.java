@@ -0,0 +1,59 @@
+package com.danielvizzini.util;
+
+/**
+ * Engine that shrinks each instance with KnapsackReduction, then picks a strategy for what is left with KnapsackStrategy.select.<br/>
+ * When branch and bound is picked, it visits at most KnapsackStrategy.MAX_BRANCH_AND_BOUND_NODES nodes, so time stays bounded;
+ * if the budget runs out the best packing found is returned and the upper bound is the fractional (Dantzig) bound.
+ * Holds the outcome of its solve for upperBound, so each solve needs its own instance from KnapsackStrategy.newEngine and none is shared.
+ */
+final class AutoKnapsackEngine extends KnapsackEngine {
+
+	private boolean complete = true;
+
+	@Override
+	boolean[] solve(double[] profits, int[] weights, int capacity) {
+		return solve(profits, weights, capacity, null);
+	}
+
+	@Override
+	boolean[] solve(double[] profits, int[] weights, int capacity, KnapsackScratch scratch) {
+
+		//decide what preprocessing can, then pack only the items left
+		this.complete = true;
+		KnapsackReduction reduction = new KnapsackReduction(profits, weights, capacity);
+		if (reduction.getReducedItemCount() == 0) return reduction.expand(null);
+		double[] reducedProfits = reduction.reducedProfits(profits);
+		int[] reducedWeights = reduction.reducedWeights(weights);
+		int reducedCapacity = reduction.getReducedCapacity();
+
+		KnapsackStrategy strategy = KnapsackStrategy.select(reducedProfits.length, reducedCapacity, weightDivisor(reducedWeights), integralProfitTotal(reducedProfits));
+		if (strategy == KnapsackStrategy.BRANCH_AND_BOUND) {
+			boolean[] take = new boolean[reducedProfits.length];
+			this.complete = BranchAndBoundKnapsackEngine.search(reducedProfits, reducedWeights, reducedCapacity, 0, KnapsackStrategy.MAX_BRANCH_AND_BOUND_NODES, take);
+			return reduction.expand(take);
+		}
+		return reduction.expand(strategy.getEngine().solve(reducedProfits, reducedWeights, reducedCapacity, scratch));
+
+	}
+
+	@Override
+	double upperBound(double[] profits, int[] weights, int capacity, boolean[] take) {
+		double profit = totalProfit(profits, take);
+		if (this.complete) return profit;
+		return Math.max(profit, new KnapsackRelaxation(profits, weights, capacity).bound(0, capacity));
+	}
+
+	/**
+	 * @return total of the positive profits once scaled to be integral, or -1 if they cannot be
+	 */
+	private static long integralProfitTotal(double[] profits) {
+		long[] scaledProfits = ProfitIndexedKnapsackEngine.integralProfits(profits);
+		if (scaledProfits == null) return -1;
+		long forReturn = 0;
+		for (long profit : scaledProfits) {
+			forReturn += profit;
+		}
+		return forReturn;
+	}
+
+}
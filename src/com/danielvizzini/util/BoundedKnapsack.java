@@ -0,0 +1,185 @@
+package com.danielvizzini.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+/**
+ * Implements the bounded and unbounded Knapsack algorithms on construction, mapping each packed item to the number of copies packed.<br/>
+ * Items that implement BoundedKnapsackItem are available getQuantity() times, other items once, or without limit in the unbounded variant.
+ * Quantities are handled internally, so items never need to be copied to describe a count. Items that are equal, such as one item
+ * listed twice, map to the total number of copies of all of them packed.<br/>
+ * The bounded variant packs with KnapsackStrategy.AUTO, whose branch and bound stops after KnapsackStrategy.MAX_BRANCH_AND_BOUND_NODES
+ * nodes on instances no dynamic program fits; the best packing found is then kept and getProfitUpperBound() bounds how far from optimal it is.
+ * @param <T> A Type that implements the KnapsackItem interface
+ */
+public class BoundedKnapsack<T extends KnapsackItem> extends LinkedHashMap<T, Integer> {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * @return total weight of all copies packed
+	 */
+	public Integer getTotalWeight() {
+		return this.totalWeight;
+	}
+	private Integer totalWeight = 0;
+
+	/**
+	 * @return total profit of all copies packed
+	 */
+	public Double getTotalProfit() {
+		return this.totalProfit;
+	}
+	private Double totalProfit = 0.0;
+
+	/**
+	 * @return upper bound on the total profit of an optimal packing, equal to getTotalProfit() unless the search stopped early
+	 */
+	public Double getProfitUpperBound() {
+		return this.profitUpperBound;
+	}
+	private double profitUpperBound = 0;
+
+	/**
+	 * Packs knapsack to maximize profits, taking up to getQuantity() copies of each BoundedKnapsackItem and one of any other item<br/>
+	 * The knapsackItems parameter is left unchanged.
+	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsack (e.g. a List of SKUs)
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 */
+	public BoundedKnapsack(Iterable<T> knapsackItems, int capacity) {
+		this(knapsackItems, capacity, false);
+	}
+
+	/**
+	 * Packs knapsack to maximize profits as specified in KnapsackItems<br/>
+	 * The knapsackItems parameter is left unchanged.
+	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsack (e.g. a List of SKUs)
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @param unbounded if true, any number of copies of each item may be packed, otherwise up to getQuantity() copies of each BoundedKnapsackItem and one of any other item
+	 */
+	public BoundedKnapsack(Iterable<T> knapsackItems, int capacity, boolean unbounded) {
+
+		if (capacity < 0) throw new IllegalArgumentException("capacity cannot be negative");
+
+		ArrayList<T> items = new ArrayList<T>();
+		for (T knapsackItem : knapsackItems) {
+			items.add(knapsackItem);
+		}
+		KnapsackColumns columns = KnapsackColumns.of(items);
+
+		int[] counts;
+		if (unbounded) {
+			counts = packUnbounded(columns.profits, columns.weights, capacity);
+		} else {
+			int[] quantities = new int[items.size()];
+			for (int n = 0; n < quantities.length; n++) {
+				T knapsackItem = items.get(n);
+				quantities[n] = knapsackItem instanceof BoundedKnapsackItem ? ((BoundedKnapsackItem) knapsackItem).getQuantity() : 1;
+			}
+			counts = packBounded(columns.profits, columns.weights, quantities, capacity);
+		}
+
+		for (int n = 0; n < counts.length; n++) {
+			if (counts[n] > 0) {
+				//equal items share one entry, so their counts add up like the totals do
+				Integer packed = this.get(items.get(n));
+				this.put(items.get(n), packed == null ? counts[n] : packed + counts[n]);
+				this.totalWeight += counts[n] * columns.weights[n];
+				this.totalProfit += counts[n] * columns.profits[n];
+			}
+		}
+		this.profitUpperBound = Math.max(this.profitUpperBound, this.totalProfit);
+
+	}
+
+	/**
+	 * Splits each item into pieces of 1, 2, 4... copies plus a remainder, so that any count up to its quantity is a sum of pieces,
+	 * and packs the pieces with the 0/1 algorithm. N items with quantities up to Q become O(N log Q) pieces.
+	 * Any packing of the items is one of the pieces, so the engine's bound on the pieces bounds the items too.
+	 * @return number of copies of each item to take
+	 */
+	private int[] packBounded(double[] profits, int[] weights, int[] quantities, int capacity) {
+
+		int N = profits.length;
+
+		//more copies than fit, or than are worth taking, are never packed
+		int pieceCount = 0;
+		for (int n = 0; n < N; n++) {
+			if (quantities[n] < 0) throw new IllegalArgumentException("quantities cannot be negative");
+			if (!(profits[n] > 0) || weights[n] > capacity) quantities[n] = 0;
+			if (weights[n] > 0) quantities[n] = Math.min(quantities[n], capacity / weights[n]);
+			pieceCount += 32 - Integer.numberOfLeadingZeros(quantities[n]);
+		}
+
+		// piece i holds multipliers[i] copies of items[i]
+		double[] pieceProfits = new double[pieceCount];
+		int[] pieceWeights = new int[pieceCount];
+		int[] pieceItems = new int[pieceCount];
+		int[] multipliers = new int[pieceCount];
+		int i = 0;
+		for (int n = 0; n < N; n++) {
+			int left = quantities[n];
+			for (int multiplier = 1; left > 0; multiplier <<= 1) {
+				int copies = Math.min(multiplier, left);
+				pieceProfits[i] = copies * profits[n];
+				pieceWeights[i] = copies * weights[n];
+				pieceItems[i] = n;
+				multipliers[i] = copies;
+				left -= copies;
+				i++;
+			}
+		}
+
+		KnapsackEngine engine = KnapsackStrategy.AUTO.newEngine();
+		boolean[] take = engine.solve(pieceProfits, pieceWeights, capacity);
+		this.profitUpperBound = engine.upperBound(pieceProfits, pieceWeights, capacity, take);
+
+		int[] counts = new int[N];
+		for (i = 0; i < pieceCount; i++) {
+			if (take[i]) counts[pieceItems[i]] += multipliers[i];
+		}
+		return counts;
+
+	}
+
+	/**
+	 * Dynamic program over capacity in which each column may add a copy of any item.
+	 * @return number of copies of each item to take
+	 */
+	private static int[] packUnbounded(double[] profits, int[] weights, int capacity) {
+
+		int N = profits.length;
+		for (int n = 0; n < N; n++) {
+			if (profits[n] > 0 && weights[n] == 0) throw new IllegalArgumentException("an unbounded knapsack cannot hold items with profit and no weight");
+		}
+
+		//shrink columns by dividing by greatest common divisor
+		int gcd = KnapsackEngine.weightDivisor(weights);
+		int W = capacity / gcd;
+
+		// opt[w] = max profit of packing copies of any item with weight limit w * gcd
+		// last[w] = item of the last copy packed in that solution, or -1 if nothing is packed
+		double[] opt = new double[W + 1];
+		int[] last = new int[W + 1];
+		last[0] = -1;
+		for (int w = 1; w <= W; w++) {
+			last[w] = -1;
+			for (int n = 0; n < N; n++) {
+				int weight = weights[n] / gcd;
+				if (weights[n] > 0 && weight <= w && profits[n] + opt[w - weight] > opt[w]) {
+					opt[w] = profits[n] + opt[w - weight];
+					last[w] = n;
+				}
+			}
+		}
+
+		// determine how many copies of each item to take
+		int[] counts = new int[N];
+		for (int w = W; last[w] >= 0; w -= weights[last[w]] / gcd) {
+			counts[last[w]]++;
+		}
+		return counts;
+
+	}
+
+}
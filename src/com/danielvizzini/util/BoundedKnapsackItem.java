@@ -0,0 +1,13 @@
+package com.danielvizzini.util;
+
+/**
+ * KnapsackItem of which several identical copies are available, e.g. a SKU with a count in inventory
+ */
+public interface BoundedKnapsackItem extends KnapsackItem {
+
+	/**
+	 * @return the number of copies of the knapsack item available (e.g. 12 jugs of olive oil in stock)
+	 */
+	public abstract Integer getQuantity();
+
+}
@@ -0,0 +1,110 @@
+package com.danielvizzini.util;
+
+/**
+ * Depth-first branch and bound over items sorted by profit/weight ratio, pruned with the fractional (Dantzig) bound.<br/>
+ * Memory is O(N) whatever the capacity. The greedy packing is the first incumbent, so a good one is known from the start;
+ * worst-case time is exponential, but typical instances prune to a small tree. The search can be stopped early by a timeout
+ * or a node budget, keeping the best packing found so far.
+ */
+final class BranchAndBoundKnapsackEngine extends KnapsackEngine {
+
+	@Override
+	boolean[] solve(double[] profits, int[] weights, int capacity) {
+		boolean[] take = new boolean[profits.length];
+		search(profits, weights, capacity, 0, 0, take);
+		return take;
+	}
+
+	/**
+	 * Searches until the tree is exhausted, or until timeout passes, maxNodes nodes are visited or the thread is interrupted, starting from the greedy packing
+	 * @param profits the profits of the items, in the same order as weights
+	 * @param weights the weights, in the same units as capacity, of the items
+	 * @param capacity capacity of knapsack
+	 * @param timeout nanoseconds the search may run, or 0 to search the whole tree without checking the clock or interrupts
+	 * @param maxNodes most nodes the search may visit, or 0 for no limit
+	 * @param take array of the same length as profits, filled with the best packing found
+	 * @return true if the whole tree was searched, so that take is optimal, false otherwise
+	 */
+	static boolean search(double[] profits, int[] weights, int capacity, long timeout, long maxNodes, boolean[] take) {
+
+		if (profits.length != weights.length) throw new IllegalArgumentException("weights and profits arrays must be of equal length");
+		long start = System.nanoTime();
+
+		KnapsackRelaxation relaxation = new KnapsackRelaxation(profits, weights, capacity);
+		int size = relaxation.size();
+
+		// x[k] = is the item of rank k taken on the current path?
+		boolean[] x = new boolean[size];
+		boolean[] bestX = new boolean[size];
+		double best = 0;
+
+		//the greedy packing is the incumbent until the search beats it
+		long left = capacity;
+		for (int j = 0; j < size; j++) {
+			if (relaxation.weight(j) <= left) {
+				bestX[j] = true;
+				left -= relaxation.weight(j);
+				best += relaxation.profit(j);
+			}
+		}
+
+		boolean complete = true;
+		long nodes = 0;
+		int k = 0;
+		long remaining = capacity;
+		double profit = 0;
+		while (true) {
+
+			//give up on the rest of the tree once the node budget or time is up, or the thread is interrupted
+			nodes++;
+			if (maxNodes > 0 && nodes > maxNodes) {
+				complete = false;
+				break;
+			}
+			if (timeout > 0 && (nodes & 1023) == 0
+					&& (System.nanoTime() - start >= timeout || Thread.currentThread().isInterrupted())) {
+				complete = false;
+				break;
+			}
+
+			if (k < size && profit + relaxation.bound(k, remaining) > best) {
+
+				//move forward, taking the next item if it fits
+				if (relaxation.weight(k) <= remaining) {
+					x[k] = true;
+					remaining -= relaxation.weight(k);
+					profit += relaxation.profit(k);
+				} else {
+					x[k] = false;
+				}
+				k++;
+				continue;
+
+			}
+
+			//record leaves that beat the incumbent
+			if (k == size && profit > best) {
+				best = profit;
+				System.arraycopy(x, 0, bestX, 0, size);
+			}
+
+			//backtrack to the last item taken and try leaving it out
+			int j = k - 1;
+			while (j >= 0 && !x[j]) j--;
+			if (j < 0) break;
+			x[j] = false;
+			remaining += relaxation.weight(j);
+			profit -= relaxation.profit(j);
+			k = j + 1;
+
+		}
+
+		// determine which items to take
+		for (int j = 0; j < size; j++) {
+			if (bestX[j]) take[relaxation.item(j)] = true;
+		}
+		return complete;
+
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.danielvizzini.util;
+
+import java.util.Arrays;
+
+/**
+ * Bit-packed take/skip table for knapsack dynamic programs, one bit per (item, column) cell.<br/>
+ * Each row is padded to a whole number of longs, so distinct 64-column blocks of a row never share a word.
+ */
+final class DecisionBits {
+
+	private long[] words;
+	private int rowWords;
+
+	/**
+	 * @param rows number of rows, usually one per item
+	 * @param columns number of columns in each row
+	 * @throws IllegalArgumentException if the table cannot be held in a single long array
+	 */
+	DecisionBits(int rows, int columns) {
+		this.words = new long[size(rows, columns)];
+		this.rowWords = wordsPerRow(columns);
+	}
+
+	/**
+	 * Clears the table and reshapes it, reusing its words if there are enough
+	 * @param rows number of rows, usually one per item
+	 * @param columns number of columns in each row
+	 * @throws IllegalArgumentException if the table cannot be held in a single long array
+	 */
+	void reset(int rows, int columns) {
+		int size = size(rows, columns);
+		if (size > this.words.length) {
+			this.words = new long[size];
+		} else {
+			Arrays.fill(this.words, 0, size, 0);
+		}
+		this.rowWords = wordsPerRow(columns);
+	}
+
+	private static int size(int rows, int columns) {
+		long size = (long) rows * wordsPerRow(columns);
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("A decision table of " + rows + " by " + columns + " cells is too large");
+		}
+		return (int) size;
+	}
+
+	/**
+	 * @param columns number of columns in a row
+	 * @return number of longs needed to hold one row
+	 */
+	static int wordsPerRow(int columns) {
+		return (int) (((long) columns + 63) >>> 6);
+	}
+
+	/**
+	 * Marks that the item of this row is taken at this column
+	 */
+	void set(int row, int column) {
+		words[row * rowWords + (column >>> 6)] |= 1L << column;
+	}
+
+	/**
+	 * Overwrites the 64 columns of this row starting at column word * 64
+	 * @param word index of the word within the row
+	 * @param bits bit b is set if the item of this row is taken at column word * 64 + b
+	 */
+	void setWord(int row, int word, long bits) {
+		words[row * rowWords + word] = bits;
+	}
+
+	/**
+	 * @return true if the item of this row is taken at this column, false otherwise
+	 */
+	boolean get(int row, int column) {
+		return (words[row * rowWords + (column >>> 6)] & (1L << column)) != 0;
+	}
+
+}
@@ -0,0 +1,322 @@
+package com.danielvizzini.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Weights and profits of the rows of a delimited text file (e.g. a CSV), read into primitive columns for a KnapsackSolver.<br/>
+ * The file is streamed a block of bytes at a time and numbers are parsed from the bytes, so no String or object is made per
+ * row, and each row keeps only its weight, profit and byte offset in the file. Rows the solver packs are mapped back to the
+ * file through their offsets. Fields may be quoted with double quotes, lines may end in \n or \r\n, and blank lines are skipped.
+ */
+public class DelimitedKnapsackFile {
+
+	// bytes read from the stream at a time
+	private static final int BLOCK_SIZE = 1 << 16;
+
+	// exact powers of ten: a long below 2^53 divided by one of these rounds exactly as Double.parseDouble does
+	private static final double[] POWERS_OF_TEN = new double[23];
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int p = 1; p < POWERS_OF_TEN.length; p++) {
+			POWERS_OF_TEN[p] = POWERS_OF_TEN[p - 1] * 10;
+		}
+	}
+
+	// weights[r], profits[r] and offsets[r] = weight, profit and byte offset of the start of data row r
+	private int[] weights = new int[1024];
+	private double[] profits = new double[1024];
+	private long[] offsets = new long[1024];
+	private int size = 0;
+
+	// bytes of the weight and profit fields of the row being read
+	private byte[] weightField = new byte[32];
+	private byte[] profitField = new byte[32];
+	private int weightLength;
+	private int profitLength;
+
+	/**
+	 * Reads the weight and profit of every row of a file
+	 * @param file delimited text file to read
+	 * @param delimiter byte that separates fields (e.g. ',' or '\t')
+	 * @param weightColumn index, from 0, of the field holding a row's weight, a non-negative integer
+	 * @param profitColumn index, from 0, of the field holding a row's profit, a decimal number
+	 * @param header if true, the first row holds column names and is skipped
+	 * @throws IOException if file cannot be read
+	 * @throws IllegalArgumentException if a row lacks either field or either does not hold a number of the right kind
+	 */
+	public DelimitedKnapsackFile(File file, char delimiter, int weightColumn, int profitColumn, boolean header) throws IOException {
+		FileInputStream in = new FileInputStream(file);
+		try {
+			read(in, delimiter, weightColumn, profitColumn, header);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Reads the weight and profit of every row of a stream, which is left open
+	 * @param in delimited text to read; offsets are counted from the first byte read
+	 * @param delimiter byte that separates fields (e.g. ',' or '\t')
+	 * @param weightColumn index, from 0, of the field holding a row's weight, a non-negative integer
+	 * @param profitColumn index, from 0, of the field holding a row's profit, a decimal number
+	 * @param header if true, the first row holds column names and is skipped
+	 * @throws IOException if in cannot be read
+	 * @throws IllegalArgumentException if a row lacks either field or either does not hold a number of the right kind
+	 */
+	public DelimitedKnapsackFile(InputStream in, char delimiter, int weightColumn, int profitColumn, boolean header) throws IOException {
+		read(in, delimiter, weightColumn, profitColumn, header);
+	}
+
+	/**
+	 * @return number of rows read, not counting the header
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @param row index of a row, from 0, not counting the header
+	 * @return weight of the row
+	 */
+	public int getWeight(int row) {
+		checkRow(row);
+		return this.weights[row];
+	}
+
+	/**
+	 * @param row index of a row, from 0, not counting the header
+	 * @return profit of the row
+	 */
+	public double getProfit(int row) {
+		checkRow(row);
+		return this.profits[row];
+	}
+
+	/**
+	 * @param row index of a row, from 0, not counting the header
+	 * @return offset, in bytes from the start of the file, of the first byte of the row
+	 */
+	public long getOffset(int row) {
+		checkRow(row);
+		return this.offsets[row];
+	}
+
+	/**
+	 * Packs rows to maximize profit, with a new KnapsackSolver using KnapsackStrategy.AUTO
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @return the indices of the rows packed, with their total profit and weight
+	 */
+	public KnapsackSolution solve(int capacity) {
+		return solve(new KnapsackSolver(), capacity);
+	}
+
+	/**
+	 * Packs rows to maximize profit, handing the columns to solver without copying them
+	 * @param solver solver to pack with, reusing its tables from earlier solves
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @return the indices of the rows packed, with their total profit and weight
+	 */
+	public KnapsackSolution solve(KnapsackSolver solver, int capacity) {
+		return solver.solve(this.profits, this.weights, capacity);
+	}
+
+	/**
+	 * @param solution rows packed, as returned by solve
+	 * @return offset, in bytes from the start of the file, of each row packed, in increasing order
+	 */
+	public long[] getOffsets(KnapsackSolution solution) {
+		long[] forReturn = new long[solution.size()];
+		for (int i = 0; i < forReturn.length; i++) {
+			forReturn[i] = getOffset(solution.getIndex(i));
+		}
+		return forReturn;
+	}
+
+	private void checkRow(int row) {
+		if (row < 0 || row >= this.size) throw new IndexOutOfBoundsException("row " + row + " of " + this.size);
+	}
+
+	private void read(InputStream in, char delimiter, int weightColumn, int profitColumn, boolean header) throws IOException {
+
+		if (delimiter > 127 || delimiter == '"' || delimiter == '\n' || delimiter == '\r') throw new IllegalArgumentException("delimiter must be a single ASCII byte other than a quote or line break");
+		if (weightColumn < 0 || profitColumn < 0) throw new IllegalArgumentException("columns cannot be negative");
+
+		byte[] block = new byte[BLOCK_SIZE];
+		long blockStart = 0;// offset of block[0] in the stream
+		boolean skip = header;// is the row being read the header?
+		boolean inRow = false;
+		boolean quoted = false;
+		long rowStart = 0;
+		int column = 0;
+
+		for (int length; (length = in.read(block)) >= 0; blockStart += length) {
+			for (int b = 0; b < length; b++) {
+				byte c = block[b];
+
+				if (quoted) {
+					//a doubled quote inside a quoted field closes and reopens it, leaving its contents alone
+					if (c == '"') {
+						quoted = false;
+					} else {
+						capture(column, weightColumn, profitColumn, c);
+					}
+					continue;
+				}
+
+				if (c == '\n' || c == '\r') {
+					//a row ends at its line break, and the \n of \r\n makes an empty row that is skipped
+					if (inRow) {
+						endRow(column, weightColumn, profitColumn, rowStart, skip);
+						skip = false;
+						inRow = false;
+						column = 0;
+					}
+					continue;
+				}
+
+				if (!inRow) {
+					inRow = true;
+					rowStart = blockStart + b;
+				}
+				if (c == '"') {
+					quoted = true;
+				} else if (c == delimiter) {
+					column++;
+				} else {
+					capture(column, weightColumn, profitColumn, c);
+				}
+			}
+		}
+		if (inRow) endRow(column, weightColumn, profitColumn, rowStart, skip);
+
+		//trim columns so they can be handed to the solver as they are
+		this.weights = Arrays.copyOf(this.weights, this.size);
+		this.profits = Arrays.copyOf(this.profits, this.size);
+		this.offsets = Arrays.copyOf(this.offsets, this.size);
+		this.weightField = null;
+		this.profitField = null;
+
+	}
+
+	/**
+	 * Appends a byte to the weight or profit field, if column is either
+	 */
+	private void capture(int column, int weightColumn, int profitColumn, byte c) {
+		if (column == weightColumn) {
+			if (this.weightLength == this.weightField.length) this.weightField = Arrays.copyOf(this.weightField, this.weightLength << 1);
+			this.weightField[this.weightLength++] = c;
+		}
+		if (column == profitColumn) {
+			if (this.profitLength == this.profitField.length) this.profitField = Arrays.copyOf(this.profitField, this.profitLength << 1);
+			this.profitField[this.profitLength++] = c;
+		}
+	}
+
+	/**
+	 * Adds the row just read, unless it is the header
+	 * @param lastColumn index of the last field of the row
+	 */
+	private void endRow(int lastColumn, int weightColumn, int profitColumn, long rowStart, boolean skip) {
+
+		int weightLength = this.weightLength;
+		int profitLength = this.profitLength;
+		this.weightLength = 0;
+		this.profitLength = 0;
+		if (skip) return;
+
+		if (lastColumn < Math.max(weightColumn, profitColumn)) throw new IllegalArgumentException("row at byte " + rowStart + " has only " + (lastColumn + 1) + " fields");
+		if (this.size == this.weights.length) {
+			int length = this.size << 1;
+			this.weights = Arrays.copyOf(this.weights, length);
+			this.profits = Arrays.copyOf(this.profits, length);
+			this.offsets = Arrays.copyOf(this.offsets, length);
+		}
+		this.weights[this.size] = parseWeight(this.weightField, weightLength, rowStart);
+		this.profits[this.size] = parseProfit(this.profitField, profitLength, rowStart);
+		this.offsets[this.size] = rowStart;
+		this.size++;
+
+	}
+
+	/**
+	 * @return the non-negative integer in the first length bytes of field, ignoring surrounding spaces and tabs
+	 */
+	static int parseWeight(byte[] field, int length, long rowStart) {
+
+		int start = 0;
+		int end = length;
+		while (start < end && isBlank(field[start])) start++;
+		while (end > start && isBlank(field[end - 1])) end--;
+		if (start < end && field[start] == '+') start++;
+		if (start == end) throw new IllegalArgumentException("row at byte " + rowStart + " has no weight");
+
+		long weight = 0;
+		for (int b = start; b < end; b++) {
+			int digit = field[b] - '0';
+			if (digit < 0 || digit > 9) {
+				if (b == start && field[b] == '-') throw new IllegalArgumentException("weights cannot be negative, as at row at byte " + rowStart);
+				throw new IllegalArgumentException("row at byte " + rowStart + " has a weight that is not an integer");
+			}
+			weight = weight * 10 + digit;
+			if (weight > Integer.MAX_VALUE) throw new IllegalArgumentException("row at byte " + rowStart + " has a weight too large for an int");
+		}
+		return (int) weight;
+
+	}
+
+	/**
+	 * @return the decimal number in the first length bytes of field, ignoring surrounding spaces and tabs, as Double.parseDouble reads it
+	 */
+	static double parseProfit(byte[] field, int length, long rowStart) {
+
+		int start = 0;
+		int end = length;
+		while (start < end && isBlank(field[start])) start++;
+		while (end > start && isBlank(field[end - 1])) end--;
+		if (start == end) throw new IllegalArgumentException("row at byte " + rowStart + " has no profit");
+
+		//plain decimals of up to 15 significant digits are parsed here, anything else by Double.parseDouble
+		int b = start;
+		boolean negative = field[b] == '-';
+		if (negative || field[b] == '+') b++;
+		long mantissa = 0;
+		int significantDigits = 0;
+		int scale = -1;// digits after the point, or -1 before the point
+		boolean digits = false;
+		for (; b < end; b++) {
+			int digit = field[b] - '0';
+			if (digit >= 0 && digit <= 9) {
+				digits = true;
+				if (mantissa != 0 || digit != 0) significantDigits++;
+				mantissa = mantissa * 10 + digit;
+				if (scale >= 0) scale++;
+				if (significantDigits > 15 || scale >= POWERS_OF_TEN.length) break;
+			} else if (field[b] == '.' && scale < 0) {
+				scale = 0;
+			} else {
+				break;
+			}
+		}
+		if (b == end && digits) {
+			double profit = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+			return negative ? -profit : profit;
+		}
+
+		try {
+			return Double.parseDouble(new String(field, start, end - start, StandardCharsets.US_ASCII));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("row at byte " + rowStart + " has a profit that is not a number", e);
+		}
+
+	}
+
+	private static boolean isBlank(byte c) {
+		return c == ' ' || c == '\t';
+	}
+
+}
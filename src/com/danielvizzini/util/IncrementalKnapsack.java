@@ -0,0 +1,199 @@
+package com.danielvizzini.util;
+
+import java.util.ArrayList;
+
+/**
+ * Knapsack of fixed capacity whose candidate items can be added, changed and removed without repacking from scratch.<br/>
+ * The dynamic program keeps one row of decisions per item and a copy of the profit row every CHECKPOINT_INTERVAL items.
+ * Appending items computes only their rows; changing or removing the item at index i recomputes only rows i and after,
+ * starting from the nearest checkpoint. Rows are brought up to date when a result is asked for, so several changes cost one update.
+ * @param <T> A Type that implements the KnapsackItem interface
+ */
+public class IncrementalKnapsack<T extends KnapsackItem> {
+
+	/**
+	 * Number of items between copies of the profit row
+	 */
+	public static final int CHECKPOINT_INTERVAL = 64;
+
+	private final int capacity;
+	private final ArrayList<T> items = new ArrayList<T>();
+
+	// decisions.get(n) = bits of row n, is item n in the best packing of items 0..n at each weight limit?
+	// checkpoints.get(k) = profit row of the best packing of items 0..k*CHECKPOINT_INTERVAL-1 at each weight limit
+	private final ArrayList<long[]> decisions = new ArrayList<long[]>();
+	private final ArrayList<double[]> checkpoints = new ArrayList<double[]>();
+
+	// opt[w] = max profit of packing items 0..rowItems-1 with weight limit w
+	private final double[] opt;
+	private int rowItems = 0;
+
+	/**
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 */
+	public IncrementalKnapsack(int capacity) {
+		if (capacity < 0) throw new IllegalArgumentException("capacity cannot be negative");
+		this.capacity = capacity;
+		this.opt = new double[capacity + 1];
+		this.checkpoints.add(new double[capacity + 1]);
+	}
+
+	/**
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @param knapsackItems items to start with, which are left unchanged
+	 */
+	public IncrementalKnapsack(int capacity, Iterable<T> knapsackItems) {
+		this(capacity);
+		for (T knapsackItem : knapsackItems) {
+			add(knapsackItem);
+		}
+	}
+
+	/**
+	 * @return capacity of knapsack
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * @return number of candidate items
+	 */
+	public int size() {
+		return this.items.size();
+	}
+
+	/**
+	 * @param index position of a candidate item
+	 * @return the candidate item at index
+	 */
+	public T get(int index) {
+		return this.items.get(index);
+	}
+
+	/**
+	 * Appends a candidate item, which only adds one row to the dynamic program
+	 * @param knapsackItem item to append
+	 */
+	public void add(T knapsackItem) {
+		checkWeight(knapsackItem);
+		this.items.add(knapsackItem);
+	}
+
+	/**
+	 * Replaces a candidate item, which recomputes rows from index on
+	 * @param index position of the item to replace
+	 * @param knapsackItem item to put in its place
+	 * @return the item previously at index
+	 */
+	public T set(int index, T knapsackItem) {
+		checkWeight(knapsackItem);
+		T forReturn = this.items.set(index, knapsackItem);
+		truncate(index);
+		return forReturn;
+	}
+
+	/**
+	 * Removes a candidate item, which recomputes rows from index on
+	 * @param index position of the item to remove
+	 * @return the item removed
+	 */
+	public T remove(int index) {
+		T forReturn = this.items.remove(index);
+		truncate(index);
+		return forReturn;
+	}
+
+	/**
+	 * @return total profit of the best packing of the current candidate items
+	 */
+	public Double getTotalProfit() {
+		update();
+		return this.opt[this.capacity];
+	}
+
+	/**
+	 * @return the best packing of the current candidate items, which are left unchanged
+	 */
+	public Knapsack<T> getKnapsack() {
+
+		update();
+
+		// determine which items to take
+		int N = this.items.size();
+		boolean[] take = new boolean[N];
+		for (int n = N - 1, w = this.capacity; n >= 0; n--) {
+			if ((this.decisions.get(n)[w >>> 6] & (1L << w)) != 0) {
+				take[n] = true;
+				w -= KnapsackColumns.weight(this.items.get(n));
+			}
+		}
+		return new Knapsack<T>(this.items, take, 0);
+
+	}
+
+	private static void checkWeight(KnapsackItem knapsackItem) {
+		if (KnapsackColumns.weight(knapsackItem) < 0) throw new IllegalArgumentException("weights cannot be negative");
+	}
+
+	/**
+	 * Drops rows from item n on, keeping the checkpoints that do not depend on them
+	 */
+	private void truncate(int n) {
+		while (this.decisions.size() > n) {
+			this.decisions.remove(this.decisions.size() - 1);
+		}
+		while ((this.checkpoints.size() - 1) * CHECKPOINT_INTERVAL > n) {
+			this.checkpoints.remove(this.checkpoints.size() - 1);
+		}
+	}
+
+	/**
+	 * Computes rows for items that have none, first rolling the profit row back if it includes dropped rows
+	 */
+	private void update() {
+
+		int valid = this.decisions.size();
+
+		//restore the nearest checkpoint and replay the profit row up to the first dropped row
+		if (this.rowItems > valid) {
+			int checkpoint = valid / CHECKPOINT_INTERVAL;
+			System.arraycopy(this.checkpoints.get(checkpoint), 0, this.opt, 0, this.capacity + 1);
+			for (int n = checkpoint * CHECKPOINT_INTERVAL; n < valid; n++) {
+				relax(n, null);
+			}
+			this.rowItems = valid;
+		}
+
+		int wordsPerRow = DecisionBits.wordsPerRow(this.capacity + 1);
+		for (int n = valid; n < this.items.size(); n++) {
+			long[] sol = new long[wordsPerRow];
+			relax(n, sol);
+			this.decisions.add(sol);
+			this.rowItems = n + 1;
+			if (this.rowItems % CHECKPOINT_INTERVAL == 0 && this.checkpoints.size() == this.rowItems / CHECKPOINT_INTERVAL) {
+				this.checkpoints.add(this.opt.clone());
+			}
+		}
+
+	}
+
+	/**
+	 * Adds item n to the profit row, recording its decisions in sol unless sol is null
+	 */
+	private void relax(int n, long[] sol) {
+		KnapsackItem knapsackItem = this.items.get(n);
+		double profit = KnapsackColumns.profit(knapsackItem);
+		int weight = KnapsackColumns.weight(knapsackItem);
+
+		// walk down so that opt[w - weight] still holds the row of items 0..n-1
+		for (int w = this.capacity; w >= weight; w--) {
+			double option2 = profit + this.opt[w - weight];
+			if (option2 > this.opt[w]) {
+				this.opt[w] = option2;
+				if (sol != null) sol[w >>> 6] |= 1L << w;
+			}
+		}
+	}
+
+}
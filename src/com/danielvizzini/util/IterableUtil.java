@@ -2,9 +2,11 @@ package com.danielvizzini.util;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
 import java.util.regex.Pattern;
 
 /**
@@ -276,23 +278,64 @@ public class IterableUtil {
 	/**
 	 * mutates list by removing set of indices from a list
 	 * @param list List of objects that will be trimmed
-	 * @param toBeRemoved List<Integer> of indices to be removed
+	 * @param toBeRemoved List<Integer> of indices to be removed, in any order; duplicates and indices outside list are ignored
 	 */
 	public static void removeIndices(Iterable<?> list, Collection<Integer> toBeRemoved) {
+		BitSet removed = new BitSet();
+		for (int index : toBeRemoved) {
+			if (index >= 0) removed.set(index);
+		}
+		removeIndices(list, removed);
+	}
 
-		//remove duplicates discarding order
-		HashSet<Integer> h = new HashSet<Integer>(toBeRemoved);
-		toBeRemoved.clear();
-		toBeRemoved.addAll(h);
+	/**
+	 * mutates list by removing set of indices from a list, without boxing the indices
+	 * @param list List of objects that will be trimmed
+	 * @param toBeRemoved indices to be removed, e.g. in increasing order; duplicates and indices outside list are ignored
+	 */
+	public static void removeIndices(Iterable<?> list, int[] toBeRemoved) {
+		BitSet removed = new BitSet();
+		for (int index : toBeRemoved) {
+			if (index >= 0) removed.set(index);
+		}
+		removeIndices(list, removed);
+	}
 
-		//remove valid subtractions
-		int i = 0;
+	/**
+	 * mutates list by removing set of indices from a list, in time linear in the length of list<br/>
+	 * RandomAccess lists are compacted in place and their tail cleared at once, rather than shifting the tail for every index removed.
+	 * Other lists are swept once with their iterator, stopping after the last index removed.
+	 * @param list List of objects that will be trimmed
+	 * @param toBeRemoved set bits are the indices to be removed; indices outside list are ignored
+	 */
+	public static void removeIndices(Iterable<?> list, BitSet toBeRemoved) {
+		if (list instanceof List && list instanceof RandomAccess) {
+			compact((List<?>) list, toBeRemoved);
+			return;
+		}
+		int last = toBeRemoved.length();
 		Iterator<?> iter = list.iterator();
-		while (iter.hasNext()) {
+		for (int i = 0; i < last && iter.hasNext(); i++) {
 			iter.next();
-			if (toBeRemoved.contains(i++)) {
-				iter.remove();
-			}
+			if (toBeRemoved.get(i)) iter.remove();
+		}
+	}
+
+	/**
+	 * removes the first index, then moves each element kept to the next free index and clears what is left at the end<br/>
+	 * The first removal throws before the list is touched if it cannot shrink (e.g. from Arrays.asList).
+	 */
+	private static <E> void compact(List<E> list, BitSet toBeRemoved) {
+		int size = list.size();
+		int first = toBeRemoved.nextSetBit(0);
+		if (first < 0 || first >= size) return;
+		list.remove(first);
+
+		//the element at index read of the original list is now at read - 1
+		int write = first;
+		for (int read = first + 1; read < size; read++) {
+			if (!toBeRemoved.get(read)) list.set(write++, list.get(read - 1));
 		}
+		list.subList(write, size - 1).clear();
 	}
 }
\ No newline at end of file
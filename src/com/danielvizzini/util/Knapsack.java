@@ -1,6 +1,8 @@
 package com.danielvizzini.util;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implements Knapsack algorithm on construction and allows total "weight" to be easily accessible.<br/>
@@ -17,85 +19,161 @@ public class Knapsack<T extends KnapsackItem> extends ArrayList<T> {
 	public Integer getTotalWeight() {
 		return this.totalWeight;
 	}
-	private Integer totalWeight = 0;
+	private int totalWeight = 0;
 
 	/**
-	 * Packs knapsack to maximize profits as specified in KnapsackItems<br/>
+	 * @return total profit of Knapsack
+	 */
+	public Double getTotalProfit() {
+		return this.totalProfit;
+	}
+	private double totalProfit = 0;
+
+	/**
+	 * @return upper bound on the total profit of an optimal packing, equal to getTotalProfit() unless the packing is approximate
+	 */
+	public Double getProfitUpperBound() {
+		return this.profitUpperBound;
+	}
+	private double profitUpperBound = 0;
+
+	/**
+	 * Packs knapsack to maximize profits as specified in KnapsackItems, using the algorithm chosen by KnapsackStrategy.select<br/>
+	 * Instances only branch and bound can solve are searched for at most KnapsackStrategy.MAX_BRANCH_AND_BOUND_NODES nodes; if the
+	 * search is cut short, getProfitUpperBound() bounds how far from optimal the packing is.<br/>
 	 * KnapsackItems placed in the Knapsack are removed from the knapsackItems parameter.
 	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
 	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsack (e.g. a List of Furniture objects)
 	 */
 	public Knapsack(Iterable<T> knapsackItems, int capacity) {
-		pack(knapsackItems, capacity);
+		this(knapsackItems, capacity, false);
 	}
 
 	/**
-	 * Packs knapsack to maximize profits as specified in KnapsackItems<br/>
+	 * Packs knapsack to maximize profits as specified in KnapsackItems, using the algorithm chosen by KnapsackStrategy.select<br/>
+	 * Instances only branch and bound can solve are searched for at most KnapsackStrategy.MAX_BRANCH_AND_BOUND_NODES nodes; if the
+	 * search is cut short, getProfitUpperBound() bounds how far from optimal the packing is.<br/>
 	 * The knapsackItems parameter is left unchanged if the replenishItems boolean is true.
 	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
 	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsack (e.g. a List of Furniture objects)
 	 * @param replenishItems if true, knapsackItems parameter will remain unchanged, otherwise KnapsackItems placed in the Knapsack are removed from the knapsackItems parameter
 	 */
 	public Knapsack(Iterable<T> knapsackItems, int capacity, boolean replenishItems) {
+		this(knapsackItems, capacity, replenishItems, KnapsackStrategy.AUTO);
+	}
+
+	/**
+	 * Packs knapsack to maximize profits as specified in KnapsackItems, using the specified algorithm<br/>
+	 * The knapsackItems parameter is left unchanged if the replenishItems boolean is true.
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsack (e.g. a List of Furniture objects)
+	 * @param replenishItems if true, knapsackItems parameter will remain unchanged, otherwise KnapsackItems placed in the Knapsack are removed from the knapsackItems parameter
+	 * @param strategy algorithm used to decide which items are packed (e.g. KnapsackStrategy.AUTO)
+	 */
+	public Knapsack(Iterable<T> knapsackItems, int capacity, boolean replenishItems, KnapsackStrategy strategy) {
+		this(knapsackItems, capacity, replenishItems, strategy.newEngine());
+	}
+
+	/**
+	 * Packs knapsack with a total profit of at least (1 - epsilon) times the best possible, by scaling and rounding profits<br/>
+	 * Runs in O(N^2 / epsilon) time and O(N / epsilon) memory for N items, whatever the capacity. getProfitUpperBound() bounds how far from optimal the packing is.<br/>
+	 * The knapsackItems parameter is left unchanged if the replenishItems boolean is true.
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsack (e.g. a List of Furniture objects)
+	 * @param replenishItems if true, knapsackItems parameter will remain unchanged, otherwise KnapsackItems placed in the Knapsack are removed from the knapsackItems parameter
+	 * @param epsilon fraction of the optimal profit that may be given up, strictly between 0 and 1 (e.g. 0.01 for a packing within 1% of optimal)
+	 * @throws IllegalArgumentException if epsilon is so small for the number of items that the dynamic program would need more than 2^27 profit columns
+	 */
+	public Knapsack(Iterable<T> knapsackItems, int capacity, boolean replenishItems, double epsilon) {
+		this(knapsackItems, capacity, replenishItems, new ApproximateKnapsackEngine(epsilon));
+	}
+
+	/**
+	 * Packs knapsack by branch and bound for at most timeout, returning the best packing found if time runs out first<br/>
+	 * The search starts from the greedy packing by profit/weight ratio and stops early, keeping its best packing, if the
+	 * calling thread is interrupted, whose interrupt status is left set. getProfitUpperBound() equals getTotalProfit() if the
+	 * packing is known to be optimal, and otherwise bounds how far from optimal it is.<br/>
+	 * The knapsackItems parameter is left unchanged if the replenishItems boolean is true.
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsack (e.g. a List of Furniture objects)
+	 * @param replenishItems if true, knapsackItems parameter will remain unchanged, otherwise KnapsackItems placed in the Knapsack are removed from the knapsackItems parameter
+	 * @param timeout longest time to search, which must be positive (e.g. 50 for 50 milliseconds)
+	 * @param unit unit of timeout (e.g. TimeUnit.MILLISECONDS)
+	 */
+	public Knapsack(Iterable<T> knapsackItems, int capacity, boolean replenishItems, long timeout, TimeUnit unit) {
+		this(knapsackItems, capacity, replenishItems, new AnytimeKnapsackEngine(unit.toNanos(timeout)));
+	}
+
+	/**
+	 * Packs knapsack with the specified engine
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsack (e.g. a List of Furniture objects)
+	 * @param replenishItems if true, knapsackItems parameter will remain unchanged, otherwise KnapsackItems placed in the Knapsack are removed from the knapsackItems parameter
+	 * @param engine algorithm that decides which items are taken
+	 */
+	Knapsack(Iterable<T> knapsackItems, int capacity, boolean replenishItems, KnapsackEngine engine) {
 		if (replenishItems) {			
-			packAndReplenish(knapsackItems, capacity);			
+			packAndReplenish(knapsackItems, capacity, engine);			
 		} else {
-			pack(knapsackItems, capacity);			
+			pack(knapsackItems, capacity, engine);			
 		}
 	}
 
 	/**
-	 * Packs knapsack where weights and profits are the same<br/>
-	 * items and weights arrays are left in tack.
+	 * Holds the items already chosen by another solver (e.g. one that packs several knapsacks at once)
+	 * @param knapsackItems list of items, some of which are packed into the knapsack (e.g. a List of Furniture objects)
+	 * @param take a boolean array of this is true if the corresponding item in knapsackItems is packed and false otherwise
+	 * @param profitUpperBound upper bound on the profit of an optimal packing, e.g. from KnapsackEngine.upperBound, or 0 if take is known to be optimal; never reported below the profit of take
+	 */
+	Knapsack(Iterable<T> knapsackItems, boolean[] take, double profitUpperBound) {
+		int i = 0;
+		for (T knapsackItem : knapsackItems) {
+			if (take[i]) {
+				this.add(knapsackItem);
+				this.totalWeight += KnapsackColumns.weight(knapsackItem);
+				this.totalProfit += KnapsackColumns.profit(knapsackItem);
+			}
+			i++;
+		}
+		this.profitUpperBound = Math.max(profitUpperBound, this.totalProfit);
+	}
+
+	/**
+	 * Hands profits and weights of the items to engine
+	 * @param columns profits and weights of the items to be packed
 	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
-	 * @param items list of items packed into the knapsack (e.g. a List of Furniture objects)
-	 * @param weights the weights, in the same units as capacity, of these objects.<br/>
+	 * @param engine algorithm that decides which items are taken
 	 * @return a boolean array of this is true if the corresponding item in items should be taken and false otherwise (e.g. a note on furniture stating "take" or trash)
 	 */
-	private boolean[] initialize(Iterable<T> knapsackItems, int capacity) {
-		
-		ArrayList<Double> profitsList = new ArrayList<Double>();
-		ArrayList<Integer> weightsList = new ArrayList<Integer>();
-		
-		for (KnapsackItem knapsackItem : knapsackItems) {
-			profitsList.add(knapsackItem.getProfit());
-			weightsList.add(knapsackItem.getWeight());
-		}
+	private boolean[] initialize(KnapsackColumns columns, int capacity, KnapsackEngine engine) {
 		
-    	//number of items
-		int numItems = profitsList.size();
+		if (capacity < 0) throw new IllegalArgumentException("capacity cannot be negative");
 
-    	//create parameters for private method
-    	double[] profits = new double[numItems + 1];
-    	int[] weights = new int[numItems + 1];
-		
-		int i = 0; //use iterator to save operations in non-indexed list, so i must instantiated outside loop
-		for (Integer weight : weightsList) {
-			profits[i + 1] = (double) weight;
-			weights[i + 1] = weight;
-			i++;
-		}
-		
 		//see what items are taken from packed knapsack
-		return packAndRemplenish(profits, weights, capacity);
+		boolean[] take = engine.solve(columns.profits, columns.weights, capacity);
+		this.profitUpperBound = engine.upperBound(columns.profits, columns.weights, capacity, take);
+		return take;
 				
 	}
 	
 	/**
 	 * internal method to pack knapsack while leaving knapsackItems parameter unchanged
-	 * @param take a boolean array of this is true if the corresponding item in items should be taken and false otherwise (e.g. a note on furniture stating "take" or trash)
 	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsack (e.g. a List of Furniture objects)
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @param engine algorithm that decides which items are taken
 	 */
-	private void packAndReplenish(Iterable<T> knapsackItems, int capacity) {
+	private void packAndReplenish(Iterable<T> knapsackItems, int capacity, KnapsackEngine engine) {
 		
-		boolean[] take = initialize(knapsackItems, capacity);
+		KnapsackColumns columns = KnapsackColumns.of(knapsackItems);
+		boolean[] take = initialize(columns, capacity, engine);
 
 		//populate itemsTaken
 		int i = 0;//use iterator to save operations in non-indexed, so i must instantiated outside loop
 		for (T knapsackItem : knapsackItems) {
 			if (take[i]) {
 				this.add(knapsackItem);
-				this.totalWeight += knapsackItem.getWeight();
+				this.totalWeight += columns.weights[i];
+				this.totalProfit += columns.profits[i];
 			}
 			i++;
 		}
@@ -103,23 +181,25 @@ public class Knapsack<T extends KnapsackItem> extends ArrayList<T> {
 	
 	/**
 	 * internal method to pack knapsack while removing items packed from knapsackItems parameter
-	 * @param take a boolean array of this is true if the corresponding item in items should be taken and false otherwise (e.g. a note on furniture stating "take" or trash)
 	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsack (e.g. a List of Furniture objects)
-	 * @param rea boolean array of this is true if the corresponding item in items should be taken and false otherwise (e.g. a note on furniture stating "take" or trash)
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @param engine algorithm that decides which items are taken
 	 */
-	private void pack(Iterable<T> knapsackItems, int capacity) {
+	private void pack(Iterable<T> knapsackItems, int capacity, KnapsackEngine engine) {
 
-		boolean[] take = initialize(knapsackItems, capacity);
+		KnapsackColumns columns = KnapsackColumns.of(knapsackItems);
+		boolean[] take = initialize(columns, capacity, engine);
 
 		//populate itemsTaken and mark the objects to be removed
-		ArrayList<Integer> toBeRemoved = new ArrayList<Integer>();
+		BitSet toBeRemoved = new BitSet(take.length);
 		
 		int i = 0;
 		for (T knapsackItem : knapsackItems) {
 			if (take[i]) {
 				this.add(knapsackItem);
-				this.totalWeight += knapsackItem.getWeight();
-				toBeRemoved.add(i);
+				this.totalWeight += columns.weights[i];
+				this.totalProfit += columns.profits[i];
+				toBeRemoved.set(i);
 			}
 			i++;
 		}
@@ -128,52 +208,5 @@ public class Knapsack<T extends KnapsackItem> extends ArrayList<T> {
 		IterableUtil.removeIndices(knapsackItems, toBeRemoved);
 		
 	}
-	
-	/**
-	 * Method modified from textbook that does the heavy lifting.<br/>
-	 * Inputs and outputs are unsuitable for public consumption.<br/>
-	 * Thank you Princeton: http://introcs.cs.princeton.edu/java/96optimization/Knapsack.java.html
-	 */
-    private boolean[] packAndRemplenish(double[] profits, int[] weights, int W) {
-    	
-    	int N = profits.length - 1;   // number of items
-    	if (N != weights.length - 1) throw new IllegalArgumentException("weights and profits arrays must be of equal length");
-    	
-        // opt[n][w] = max profit of packing items 1..n with weight limit w
-        // sol[n][w] = does opt solution to pack items 1..n with weight limit w include item n?
-        double[][] opt = new double[N+1][W+1];
-        boolean[][] sol = new boolean[N+1][W+1];
-
-        //minimize iterations by dividing by greatest common divisor
-        int gcd = MiscUtil.greatestCommonDivisor(weights);        
-    	if (gcd > 0) W = gcd * (int) (W / gcd);
-    	
-        for (int n = 1; n <= N; n++) {
-            for (int w = gcd; w <= W; w += gcd) {
-
-                // don't take item n
-                double option1 = opt[n-1][w];
-
-                // take item n
-                double option2 = Integer.MIN_VALUE;
-                if (weights[n] <= w) {
-                	option2 = profits[n] + opt[n-1][w-weights[n]];
-                }
-
-                // select better of two options
-                opt[n][w] = Math.max(option1, option2);
-                sol[n][w] = (option2 > option1);
-            }
-        }
-
-        // determine which items to take
-        boolean[] take = new boolean[N];
-        for (int n = N, w = W; n > 0; n--) {
-            if (sol[n][w]) { take[n-1] = true;  w = w - weights[n]; }
-            else           { take[n-1] = false;                    }
-        }
-        
-        return take;
-
-    }
-}
\ No newline at end of file
+
+}
@@ -0,0 +1,124 @@
+package com.danielvizzini.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Packs many independent knapsacks (e.g. one truck per depot) on the threads of an ExecutorService.<br/>
+ * Instances are added with add and solved together by submit or solve, whose results are in the order the instances were added.
+ * Each task borrows working memory from a pool kept by the batch and returns it when done, so tables are allocated
+ * about once per concurrently running task rather than once per instance. This works with any executor, including one
+ * that starts a thread per task. Each task also solves with an engine of its own, so getProfitUpperBound() of each result
+ * bounds its own packing if the search stopped early. Items are left unchanged, and must not be modified while the batch runs.
+ * @param <T> A Type that implements the KnapsackItem interface
+ */
+public class KnapsackBatch<T extends KnapsackItem> {
+
+	private final ArrayList<Iterable<T>> itemLists = new ArrayList<Iterable<T>>();
+	private final ArrayList<Integer> capacities = new ArrayList<Integer>();
+	private final ConcurrentLinkedQueue<KnapsackScratch> scratches = new ConcurrentLinkedQueue<KnapsackScratch>();
+
+	/**
+	 * Adds an instance to the batch
+	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsack (e.g. a List of Furniture objects)
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @return position of the instance, which is also the position of its result
+	 */
+	public int add(Iterable<T> knapsackItems, int capacity) {
+		if (capacity < 0) throw new IllegalArgumentException("capacity cannot be negative");
+		this.itemLists.add(knapsackItems);
+		this.capacities.add(capacity);
+		return this.itemLists.size() - 1;
+	}
+
+	/**
+	 * @return number of instances added
+	 */
+	public int size() {
+		return this.itemLists.size();
+	}
+
+	/**
+	 * Schedules every instance on executor, using the algorithm chosen by KnapsackStrategy.select for each
+	 * @param executor executor to run the instances on (e.g. Executors.newFixedThreadPool(8))
+	 * @return one future per instance, in the order the instances were added
+	 */
+	public List<Future<Knapsack<T>>> submit(ExecutorService executor) {
+		ArrayList<Future<Knapsack<T>>> forReturn = new ArrayList<Future<Knapsack<T>>>(size());
+		for (int i = 0; i < size(); i++) {
+			final Iterable<T> knapsackItems = this.itemLists.get(i);
+			final int capacity = this.capacities.get(i);
+			forReturn.add(executor.submit(new Callable<Knapsack<T>>() {
+				@Override
+				public Knapsack<T> call() {
+					return pack(knapsackItems, capacity);
+				}
+			}));
+		}
+		return forReturn;
+	}
+
+	/**
+	 * Solves every instance on executor and waits for all of them
+	 * @param executor executor to run the instances on (e.g. Executors.newFixedThreadPool(8))
+	 * @return one Knapsack per instance, in the order the instances were added
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public List<Knapsack<T>> solve(ExecutorService executor) throws InterruptedException {
+		List<Future<Knapsack<T>>> futures = submit(executor);
+		ArrayList<Knapsack<T>> forReturn = new ArrayList<Knapsack<T>>(futures.size());
+		try {
+			for (Future<Knapsack<T>> future : futures) {
+				forReturn.add(future.get());
+			}
+		} catch (ExecutionException e) {
+			for (Future<Knapsack<T>> future : futures) {
+				future.cancel(false);
+			}
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw new IllegalStateException(cause);
+		}
+		return forReturn;
+	}
+
+	/**
+	 * Solves every instance on a pool of threads that is shut down once they are done
+	 * @param threads number of threads to solve on
+	 * @return one Knapsack per instance, in the order the instances were added
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public List<Knapsack<T>> solve(int threads) throws InterruptedException {
+		if (threads < 1) throw new IllegalArgumentException("threads must be positive");
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			return solve(executor);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Packs one instance with working memory borrowed from the pool and an engine of its own, whose bound the Knapsack reports
+	 */
+	private Knapsack<T> pack(Iterable<T> knapsackItems, int capacity) {
+		KnapsackScratch scratch = this.scratches.poll();
+		if (scratch == null) scratch = new KnapsackScratch();
+		try {
+			KnapsackColumns columns = KnapsackColumns.of(knapsackItems);
+			KnapsackEngine engine = KnapsackStrategy.AUTO.newEngine();
+			boolean[] take = engine.solve(columns.profits, columns.weights, capacity, scratch);
+			return new Knapsack<T>(knapsackItems, take, engine.upperBound(columns.profits, columns.weights, capacity, take));
+		} finally {
+			this.scratches.offer(scratch);
+		}
+	}
+
+}
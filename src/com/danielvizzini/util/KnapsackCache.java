@@ -0,0 +1,181 @@
+package com.danielvizzini.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers which items the most recent packings took, and the bound on their profit, so repeated requests for the same items and capacity skip the algorithm.<br/>
+ * Requests are matched on the sequence of (profit, weight) pairs and the capacity, not on item identity, so equal catalogues
+ * built by different callers share an entry. Lookups hash a 64-bit fingerprint of the sequence, and entries keep a copy of the
+ * profits and weights so that a fingerprint collision can never return the wrong packing.<br/>
+ * Holds at most maxEntries packings, evicting the least recently used. Safe for use by several threads; the algorithm runs outside the lock,
+ * so threads missing on the same request at once each pack it.
+ * @param <T> A Type that implements the KnapsackItem interface
+ */
+public class KnapsackCache<T extends KnapsackItem> {
+
+	private final int maxEntries;
+	private final KnapsackStrategy strategy;
+	private final LinkedHashMap<Key, Packing> entries;
+	private long hitCount = 0;
+	private long missCount = 0;
+
+	/**
+	 * @param maxEntries largest number of packings remembered
+	 */
+	public KnapsackCache(int maxEntries) {
+		this(maxEntries, KnapsackStrategy.AUTO);
+	}
+
+	/**
+	 * @param maxEntries largest number of packings remembered
+	 * @param strategy algorithm used to decide which items are packed on a miss (e.g. KnapsackStrategy.AUTO)
+	 */
+	public KnapsackCache(final int maxEntries, KnapsackStrategy strategy) {
+		if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be positive");
+		this.maxEntries = maxEntries;
+		this.strategy = strategy;
+		this.entries = new LinkedHashMap<Key, Packing>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Packing> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Packs knapsack to maximize profits as specified in KnapsackItems, reusing a remembered packing of equal items if there is one<br/>
+	 * The knapsackItems parameter is left unchanged.
+	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsack (e.g. a List of Furniture objects)
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @return the packed knapsack
+	 */
+	public Knapsack<T> pack(Iterable<T> knapsackItems, int capacity) {
+
+		if (capacity < 0) throw new IllegalArgumentException("capacity cannot be negative");
+		KnapsackColumns columns = KnapsackColumns.of(knapsackItems);
+		Key key = new Key(columns.profits, columns.weights, capacity);
+
+		Packing packing;
+		synchronized (this.entries) {
+			packing = this.entries.get(key);
+			if (packing != null) {
+				this.hitCount++;
+			} else {
+				this.missCount++;
+			}
+		}
+
+		//each miss gets an engine of its own, whose bound is remembered with the packing
+		if (packing == null) {
+			KnapsackEngine engine = this.strategy.newEngine();
+			boolean[] take = engine.solve(columns.profits, columns.weights, capacity);
+			packing = new Packing(take, engine.upperBound(columns.profits, columns.weights, capacity, take));
+			synchronized (this.entries) {
+				this.entries.put(key, packing);
+			}
+		}
+		return new Knapsack<T>(knapsackItems, packing.take, packing.profitUpperBound);
+
+	}
+
+	/**
+	 * @return largest number of packings remembered
+	 */
+	public int getMaxEntries() {
+		return this.maxEntries;
+	}
+
+	/**
+	 * @return number of packings remembered
+	 */
+	public int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	/**
+	 * @return number of requests answered from a remembered packing
+	 */
+	public long getHitCount() {
+		synchronized (this.entries) {
+			return this.hitCount;
+		}
+	}
+
+	/**
+	 * @return number of requests that ran the algorithm
+	 */
+	public long getMissCount() {
+		synchronized (this.entries) {
+			return this.missCount;
+		}
+	}
+
+	/**
+	 * Forgets every packing, leaving the counters unchanged
+	 */
+	public void clear() {
+		synchronized (this.entries) {
+			this.entries.clear();
+		}
+	}
+
+	/**
+	 * Items a request took, and the upper bound on the profit of an optimal packing reported by the engine that packed them
+	 */
+	private static final class Packing {
+
+		private final boolean[] take;
+		private final double profitUpperBound;
+
+		Packing(boolean[] take, double profitUpperBound) {
+			this.take = take;
+			this.profitUpperBound = profitUpperBound;
+		}
+
+	}
+
+	/**
+	 * Profits, weights and capacity of a request, hashed by a fingerprint computed once
+	 */
+	private static final class Key {
+
+		private final double[] profits;
+		private final int[] weights;
+		private final int capacity;
+		private final long fingerprint;
+
+		Key(double[] profits, int[] weights, int capacity) {
+			this.profits = profits;
+			this.weights = weights;
+			this.capacity = capacity;
+
+			//FNV-1a over the bits of each pair, then the capacity
+			long fingerprint = 0xcbf29ce484222325L;
+			for (int n = 0; n < profits.length; n++) {
+				fingerprint = (fingerprint ^ Double.doubleToLongBits(profits[n])) * 0x100000001b3L;
+				fingerprint = (fingerprint ^ weights[n]) * 0x100000001b3L;
+			}
+			this.fingerprint = (fingerprint ^ capacity) * 0x100000001b3L;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (this.fingerprint ^ (this.fingerprint >>> 32));
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof Key)) return false;
+			Key other = (Key) object;
+			return this.fingerprint == other.fingerprint && this.capacity == other.capacity
+					&& Arrays.equals(this.weights, other.weights) && Arrays.equals(this.profits, other.profits);
+		}
+
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.danielvizzini.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Profits and weights of a sequence of KnapsackItems, extracted once into primitive arrays for the engines.<br/>
+ * PrimitiveKnapsackItems are read without boxing, and collections are read straight into arrays of the right size.
+ */
+final class KnapsackColumns {
+
+	final double[] profits;
+	final int[] weights;
+
+	private KnapsackColumns(double[] profits, int[] weights) {
+		this.profits = profits;
+		this.weights = weights;
+	}
+
+	/**
+	 * @return number of items
+	 */
+	int size() {
+		return this.profits.length;
+	}
+
+	/**
+	 * @param knapsackItems items to extract profits and weights from
+	 * @return columns in the same order as knapsackItems
+	 * @throws IllegalArgumentException if any weight is negative
+	 */
+	static KnapsackColumns of(Iterable<? extends KnapsackItem> knapsackItems) {
+
+		int length = knapsackItems instanceof Collection ? ((Collection<?>) knapsackItems).size() : 16;
+		double[] profits = new double[length];
+		int[] weights = new int[length];
+		int size = 0;
+
+		for (KnapsackItem knapsackItem : knapsackItems) {
+			if (size == profits.length) {
+				profits = Arrays.copyOf(profits, Math.max(size << 1, 16));
+				weights = Arrays.copyOf(weights, profits.length);
+			}
+			profits[size] = profit(knapsackItem);
+			weights[size] = weight(knapsackItem);
+			if (weights[size] < 0) throw new IllegalArgumentException("weights cannot be negative");
+			size++;
+		}
+
+		if (size != profits.length) {
+			profits = Arrays.copyOf(profits, size);
+			weights = Arrays.copyOf(weights, size);
+		}
+		return new KnapsackColumns(profits, weights);
+
+	}
+
+	/**
+	 * @return the profit of knapsackItem, unboxed only if it is not a PrimitiveKnapsackItem
+	 */
+	static double profit(KnapsackItem knapsackItem) {
+		if (knapsackItem instanceof PrimitiveKnapsackItem) return ((PrimitiveKnapsackItem) knapsackItem).profit();
+		return knapsackItem.getProfit();
+	}
+
+	/**
+	 * @return the weight of knapsackItem, unboxed only if it is not a PrimitiveKnapsackItem
+	 */
+	static int weight(KnapsackItem knapsackItem) {
+		if (knapsackItem instanceof PrimitiveKnapsackItem) return ((PrimitiveKnapsackItem) knapsackItem).weight();
+		return knapsackItem.getWeight();
+	}
+
+}
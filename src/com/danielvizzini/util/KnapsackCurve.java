@@ -0,0 +1,89 @@
+package com.danielvizzini.util;
+
+import java.util.ArrayList;
+
+/**
+ * Best total profit of packing a list of items at every capacity from 0 up to a maximum, from a single run of the dynamic program.<br/>
+ * The packing itself is only reconstructed for the capacities asked for, e.g. to compare candidate truck sizes without repacking for each one.
+ * @param <T> A Type that implements the KnapsackItem interface
+ */
+public class KnapsackCurve<T extends KnapsackItem> {
+
+	private final ArrayList<T> items = new ArrayList<T>();
+	private final int[] weights;
+	private final int maxCapacity;
+	private final int gcd;
+
+	// opt[w] = max profit of packing all items with weight limit w * gcd
+	// sol(n, w) = does opt solution to pack items 1..n with weight limit w * gcd include item n?
+	private final double[] opt;
+	private final DecisionBits sol;
+
+	/**
+	 * Runs the dynamic program for every capacity up to maxCapacity<br/>
+	 * The knapsackItems parameter is left unchanged.
+	 * @param knapsackItems list of items that implement the KnapsackItem interface (e.g. a List of Furniture objects)
+	 * @param maxCapacity largest capacity of interest (e.g. 150 for trucks of up to 150 cubic yards)
+	 */
+	public KnapsackCurve(Iterable<T> knapsackItems, int maxCapacity) {
+
+		if (maxCapacity < 0) throw new IllegalArgumentException("capacity cannot be negative");
+
+		for (T knapsackItem : knapsackItems) {
+			this.items.add(knapsackItem);
+		}
+		KnapsackColumns columns = KnapsackColumns.of(this.items);
+
+		this.weights = columns.weights;
+		this.maxCapacity = maxCapacity;
+		this.gcd = KnapsackEngine.weightDivisor(columns.weights);
+		this.opt = new double[maxCapacity / this.gcd + 1];
+		this.sol = new DecisionBits(columns.size(), this.opt.length);
+		RollingKnapsackEngine.fill(columns.profits, columns.weights, this.gcd, this.opt.length - 1, this.opt, this.sol);
+
+	}
+
+	/**
+	 * @return largest capacity the curve covers
+	 */
+	public int getMaxCapacity() {
+		return this.maxCapacity;
+	}
+
+	/**
+	 * @param capacity capacity of knapsack, from 0 to getMaxCapacity()
+	 * @return best total profit of packing the items into capacity
+	 */
+	public double getProfit(int capacity) {
+		return this.opt[column(capacity)];
+	}
+
+	/**
+	 * @return array whose element c is the best total profit of packing the items into capacity c, for c from 0 to getMaxCapacity()
+	 */
+	public double[] getProfits() {
+		double[] forReturn = new double[this.maxCapacity + 1];
+		for (int c = 0; c <= this.maxCapacity; c++) {
+			forReturn[c] = this.opt[c / this.gcd];
+		}
+		return forReturn;
+	}
+
+	/**
+	 * Reconstructs the best packing at one capacity<br/>
+	 * The items the curve was built from are left unchanged.
+	 * @param capacity capacity of knapsack, from 0 to getMaxCapacity()
+	 * @return Knapsack holding the best packing of the items into capacity
+	 */
+	public Knapsack<T> getKnapsack(int capacity) {
+		return new Knapsack<T>(this.items, RollingKnapsackEngine.reconstruct(this.weights, this.gcd, column(capacity), this.sol), 0);
+	}
+
+	private int column(int capacity) {
+		if (capacity < 0 || capacity > this.maxCapacity) {
+			throw new IllegalArgumentException("capacity must be between 0 and " + this.maxCapacity);
+		}
+		return capacity / this.gcd;
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.danielvizzini.util;
+
+/**
+ * Algorithm used by Knapsack to decide which items to take.<br/>
+ * Inputs and outputs are unsuitable for public consumption, see KnapsackStrategy.
+ */
+abstract class KnapsackEngine {
+
+	/**
+	 * @param profits the profits of the items, in the same order as weights
+	 * @param weights the weights, in the same units as capacity, of the items
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @return a boolean array of this is true if the corresponding item should be taken and false otherwise
+	 */
+	abstract boolean[] solve(double[] profits, int[] weights, int capacity);
+
+	/**
+	 * Same as solve, for engines that can work in reusable scratch memory
+	 * @param profits the profits of the items, in the same order as weights
+	 * @param weights the weights, in the same units as capacity, of the items
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @param scratch working memory to reuse, or null to allocate fresh tables
+	 * @return a boolean array of this is true if the corresponding item should be taken and false otherwise
+	 */
+	boolean[] solve(double[] profits, int[] weights, int capacity, KnapsackScratch scratch) {
+		return solve(profits, weights, capacity);
+	}
+
+	/**
+	 * Upper bound on the profit of an optimal packing, for engines that may return a packing that is not optimal
+	 * @param profits the profits of the items, in the same order as weights
+	 * @param weights the weights, in the same units as capacity, of the items
+	 * @param capacity capacity of knapsack
+	 * @param take the packing returned by solve
+	 * @return the total profit of take, which is optimal unless overridden
+	 */
+	double upperBound(double[] profits, int[] weights, int capacity, boolean[] take) {
+		return totalProfit(profits, take);
+	}
+
+	/**
+	 * @return the total profit of the taken items
+	 */
+	static double totalProfit(double[] profits, boolean[] take) {
+		double forReturn = 0;
+		for (int n = 0; n < take.length; n++) {
+			if (take[n]) forReturn += profits[n];
+		}
+		return forReturn;
+	}
+
+	/**
+	 * Divisor that capacity-indexed tables can be shrunk by without losing any reachable weight
+	 * @param weights the weights of the items
+	 * @return the greatest common divisor of weights, or 1 if there are no weights or they are all zero
+	 */
+	static int weightDivisor(int[] weights) {
+		if (weights.length == 0) return 1;
+		int gcd = MiscUtil.greatestCommonDivisor(weights);
+		return gcd > 0 ? gcd : 1;
+	}
+
+}
@@ -0,0 +1,136 @@
+package com.danielvizzini.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.List;
+
+/**
+ * Static methods to pack one set of items split into partitions, each solved on its own thread, process or machine.<br/>
+ * Each partition builds a KnapsackCurve of its items and ships its profit row, the best profit at every capacity, with writeProfits.
+ * The rows are read back with readProfits and allocate picks how much capacity each partition gets, by (max, +) convolution of
+ * the rows. Each partition then reconstructs its own items with getKnapsack at the capacity it was given, so items never leave
+ * the partition that owns them. Convolving rows of W + 1 entries takes O(W^2) time per partition.
+ */
+public class KnapsackPartitions {
+
+	// first int of an exported row, to catch streams that do not hold one
+	private static final int MAGIC = 0x4B4E5052;
+
+	private KnapsackPartitions() {}
+
+	/**
+	 * Writes a profit row in a compact binary format: a marker, the number of entries and each entry as a double
+	 * @param profits best profit at every capacity from 0 up, e.g. from KnapsackCurve.getProfits()
+	 * @param out stream to write to
+	 * @throws IOException if out cannot be written
+	 */
+	public static void writeProfits(double[] profits, DataOutput out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(profits.length);
+		for (double profit : profits) {
+			out.writeDouble(profit);
+		}
+	}
+
+	/**
+	 * Reads a profit row written by writeProfits
+	 * @param in stream to read from
+	 * @return best profit at every capacity from 0 up
+	 * @throws IOException if in cannot be read or does not hold a profit row
+	 */
+	public static double[] readProfits(DataInput in) throws IOException {
+		if (in.readInt() != MAGIC) throw new StreamCorruptedException("not a knapsack profit row");
+		int length = in.readInt();
+		if (length < 1) throw new StreamCorruptedException("a knapsack profit row cannot have " + length + " entries");
+		double[] forReturn = new double[length];
+		for (int c = 0; c < length; c++) {
+			forReturn[c] = in.readDouble();
+		}
+		return forReturn;
+	}
+
+	/**
+	 * (max, +) convolution of two profit rows: the best profit at each capacity from splitting it between the two item sets
+	 * @param profits best profit of one item set at every capacity from 0 up
+	 * @param otherProfits best profit of another item set at every capacity from 0 up
+	 * @param capacity largest capacity of interest
+	 * @return array whose element c is the best total profit of packing both item sets into capacity c, for c from 0 to capacity
+	 */
+	public static double[] merge(double[] profits, double[] otherProfits, int capacity) {
+		return convolve(profits, otherProfits, capacity, null);
+	}
+
+	/**
+	 * Splits capacity among partitions so that the sum of their best profits is largest
+	 * @param rows profit row of each partition, each with an entry for every capacity from 0 up
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @return capacity given to each partition, in the order of rows, totaling at most capacity
+	 */
+	public static int[] allocate(List<double[]> rows, int capacity) {
+
+		if (capacity < 0) throw new IllegalArgumentException("capacity cannot be negative");
+		int K = rows.size();
+		int[] forReturn = new int[K];
+		if (K == 0) return forReturn;
+
+		// merged = best profit of partitions 0..k at each capacity
+		// splits[k][c] = capacity given to partition k in the best packing of partitions 0..k into capacity c
+		int[][] splits = new int[K][];
+		double[] merged = convolve(new double[]{0}, rows.get(0), capacity, splits[0] = new int[capacity + 1]);
+		for (int k = 1; k < K; k++) {
+			splits[k] = new int[capacity + 1];
+			merged = convolve(merged, rows.get(k), capacity, splits[k]);
+		}
+
+		//walk back from the full capacity, handing each partition its share
+		int remaining = capacity;
+		for (int k = K - 1; k >= 0; k--) {
+			forReturn[k] = splits[k][remaining];
+			remaining -= forReturn[k];
+		}
+		return forReturn;
+
+	}
+
+	/**
+	 * @param splits if not null, filled with how much of each capacity otherProfits gets
+	 * @return element c is the max over j of profits[c - j] + otherProfits[j]; a row shorter than c stays at its last entry
+	 */
+	private static double[] convolve(double[] profits, double[] otherProfits, int capacity, int[] splits) {
+
+		if (profits.length == 0 || otherProfits.length == 0) throw new IllegalArgumentException("profit rows cannot be empty");
+		if (capacity < 0) throw new IllegalArgumentException("capacity cannot be negative");
+
+		double[] forReturn = new double[capacity + 1];
+		int last = profits.length - 1;
+		int otherLast = otherProfits.length - 1;
+		for (int c = 0; c <= capacity; c++) {
+
+			//giving otherProfits more than its row covers, or leaving profits more than its row covers, gains nothing
+			int from = Math.max(0, c - last);
+			int to = Math.min(c, otherLast);
+			double best = Double.NEGATIVE_INFINITY;
+			int bestSplit = to;
+			for (int j = from; j <= to; j++) {
+				double profit = profits[c - j] + otherProfits[j];
+				if (profit > best) {
+					best = profit;
+					bestSplit = j;
+				}
+			}
+
+			//both rows too short to use all of c
+			if (from > to) {
+				best = profits[Math.min(c, last)] + otherProfits[otherLast];
+				bestSplit = otherLast;
+			}
+			forReturn[c] = best;
+			if (splits != null) splits[c] = bestSplit;
+		}
+		return forReturn;
+
+	}
+
+}
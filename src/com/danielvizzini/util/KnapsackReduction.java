@@ -0,0 +1,279 @@
+package com.danielvizzini.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Shrinks a Knapsack instance before it is packed, by deciding up front the items whose fate no optimal packing can change.<br/>
+ * Items without profit or heavier than capacity are left out, as is an item dominated by lighter, more profitable items when
+ * it could not be packed together with all of them: an optimal packing that took it could swap it for one of them. Items
+ * are then fixed in or out when the fractional (Dantzig) bound of every packing that decides them otherwise falls short of the
+ * greedy packing. Capacity shrinks by the weight of the items fixed in, and to the total weight of the items left if that is less.<br/>
+ * AUTO packs the reduced instance; constructing a KnapsackReduction reports how much an instance shrinks.
+ */
+public class KnapsackReduction {
+
+	private final int itemCount;
+	private final int capacity;
+
+	// free = indices of the items left to decide, fixedIn = is the item packed whatever the rest do?
+	private final int[] free;
+	private final boolean[] fixedIn;
+	private final int reducedCapacity;
+
+	private int oversizedCount = 0;
+	private int dominatedCount = 0;
+	private int fixedInCount = 0;
+	private int fixedOutCount = 0;
+
+	/**
+	 * @param knapsackItems list of items that implement the KnapsackItem interface, which is left unchanged
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 */
+	public KnapsackReduction(Iterable<? extends KnapsackItem> knapsackItems, int capacity) {
+		this(KnapsackColumns.of(knapsackItems), capacity);
+	}
+
+	private KnapsackReduction(KnapsackColumns columns, int capacity) {
+		this(columns.profits, columns.weights, capacity);
+	}
+
+	/**
+	 * @param profits the profits of the items, in the same order as weights
+	 * @param weights the weights, in the same units as capacity, of the items
+	 * @param capacity capacity of knapsack
+	 */
+	KnapsackReduction(double[] profits, int[] weights, int capacity) {
+
+		int N = profits.length;
+		if (N != weights.length) throw new IllegalArgumentException("weights and profits arrays must be of equal length");
+		if (capacity < 0) throw new IllegalArgumentException("capacity cannot be negative");
+		this.itemCount = N;
+		this.capacity = capacity;
+		this.fixedIn = new boolean[N];
+
+		//items without profit or heavier than capacity are never packed, weightless ones with profit always are
+		int[] candidates = new int[N];
+		int size = 0;
+		long fixedWeight = 0;
+		for (int n = 0; n < N; n++) {
+			if (!(profits[n] > 0) || weights[n] > capacity) {
+				this.oversizedCount++;
+			} else if (weights[n] == 0) {
+				this.fixedIn[n] = true;
+				this.fixedInCount++;
+			} else {
+				candidates[size++] = n;
+			}
+		}
+		candidates = Arrays.copyOf(candidates, size);
+
+		candidates = undominated(profits, weights, capacity, candidates);
+		this.dominatedCount = size - candidates.length;
+		size = candidates.length;
+
+		//decide items whose every packing the other way is bounded below the greedy packing
+		double[] subProfits = new double[size];
+		int[] subWeights = new int[size];
+		for (int i = 0; i < size; i++) {
+			subProfits[i] = profits[candidates[i]];
+			subWeights[i] = weights[candidates[i]];
+		}
+		KnapsackRelaxation relaxation = new KnapsackRelaxation(subProfits, subWeights, capacity);
+		double lowerBound = greedyProfit(relaxation, capacity);
+		double threshold = lowerBound - 1e-9 * Math.max(1, lowerBound);
+		boolean[] decided = new boolean[size];
+		for (int k = 0; k < relaxation.size(); k++) {
+			int i = relaxation.item(k);
+			if (relaxation.profit(k) + relaxation.boundWithout(k, capacity - relaxation.weight(k)) < threshold) {
+				decided[i] = true;
+				this.fixedOutCount++;
+			} else if (relaxation.boundWithout(k, capacity) < threshold) {
+				decided[i] = true;
+				this.fixedIn[candidates[i]] = true;
+				this.fixedInCount++;
+				fixedWeight += relaxation.weight(k);
+			}
+		}
+
+		//keep the rest, and shrink capacity to what is left and what they can use
+		int[] remaining = new int[size];
+		int remainingSize = 0;
+		long remainingWeight = 0;
+		for (int i = 0; i < size; i++) {
+			if (!decided[i]) {
+				remaining[remainingSize++] = candidates[i];
+				remainingWeight += weights[candidates[i]];
+			}
+		}
+		this.free = Arrays.copyOf(remaining, remainingSize);
+		this.reducedCapacity = (int) Math.max(0, Math.min(capacity - fixedWeight, remainingWeight));
+
+	}
+
+	/**
+	 * @return number of items in the original instance
+	 */
+	public int getItemCount() {
+		return this.itemCount;
+	}
+
+	/**
+	 * @return number of items left to decide once the instance is reduced
+	 */
+	public int getReducedItemCount() {
+		return this.free.length;
+	}
+
+	/**
+	 * @return capacity of the original instance
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * @return capacity left for the items still to decide
+	 */
+	public int getReducedCapacity() {
+		return this.reducedCapacity;
+	}
+
+	/**
+	 * @return number of items left out for having no profit or being heavier than capacity
+	 */
+	public int getOversizedCount() {
+		return this.oversizedCount;
+	}
+
+	/**
+	 * @return number of items left out for being dominated
+	 */
+	public int getDominatedCount() {
+		return this.dominatedCount;
+	}
+
+	/**
+	 * @return number of items packed whatever the others do
+	 */
+	public int getFixedInCount() {
+		return this.fixedInCount;
+	}
+
+	/**
+	 * @return number of items left out by the bound test
+	 */
+	public int getFixedOutCount() {
+		return this.fixedOutCount;
+	}
+
+	/**
+	 * @return the profits of the items left to decide, in the order the items were given
+	 */
+	double[] reducedProfits(double[] profits) {
+		double[] forReturn = new double[this.free.length];
+		for (int i = 0; i < this.free.length; i++) {
+			forReturn[i] = profits[this.free[i]];
+		}
+		return forReturn;
+	}
+
+	/**
+	 * @return the weights of the items left to decide, in the order the items were given
+	 */
+	int[] reducedWeights(int[] weights) {
+		int[] forReturn = new int[this.free.length];
+		for (int i = 0; i < this.free.length; i++) {
+			forReturn[i] = weights[this.free[i]];
+		}
+		return forReturn;
+	}
+
+	/**
+	 * @param reducedTake a boolean array of this is true if the corresponding item left to decide is taken, or null if none are
+	 * @return a boolean array of this is true if the corresponding item of the original instance is taken and false otherwise
+	 */
+	boolean[] expand(boolean[] reducedTake) {
+		boolean[] forReturn = this.fixedIn.clone();
+		for (int i = 0; i < this.free.length; i++) {
+			if (reducedTake != null && reducedTake[i]) forReturn[this.free[i]] = true;
+		}
+		return forReturn;
+	}
+
+	/**
+	 * Leaves out each item that cannot be packed together with all the items that dominate it<br/>
+	 * Items are visited by increasing weight, then decreasing profit, so every item dominating an item is visited before it, and
+	 * a Fenwick tree indexed by profit rank sums the weights of the visited items at least as profitable.
+	 * @return candidates that are kept, in their original order
+	 */
+	private static int[] undominated(final double[] profits, final int[] weights, int capacity, int[] candidates) {
+
+		int size = candidates.length;
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = candidates[i];
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				if (weights[a] != weights[b]) return weights[a] < weights[b] ? -1 : 1;
+				if (profits[a] != profits[b]) return profits[a] > profits[b] ? -1 : 1;
+				return a.compareTo(b);
+			}
+		});
+
+		// distinct profits from the largest down, so that rank r covers every profit at least as large
+		double[] levels = new double[size];
+		for (int i = 0; i < size; i++) {
+			levels[i] = -profits[candidates[i]];
+		}
+		Arrays.sort(levels);
+		int distinct = 0;
+		for (int i = 0; i < size; i++) {
+			if (distinct == 0 || levels[i] != levels[distinct - 1]) levels[distinct++] = levels[i];
+		}
+
+		// tree = Fenwick tree of the weights of visited items, by profit rank
+		long[] tree = new long[distinct + 1];
+		boolean[] dominated = new boolean[profits.length];
+		int kept = size;
+		for (Integer n : order) {
+			int rank = Arrays.binarySearch(levels, 0, distinct, -profits[n]) + 1;
+			long dominatorWeight = 0;
+			for (int r = rank; r > 0; r -= r & -r) {
+				dominatorWeight += tree[r];
+			}
+			if (dominatorWeight + weights[n] > capacity) {
+				dominated[n] = true;
+				kept--;
+			}
+			for (int r = rank; r <= distinct; r += r & -r) {
+				tree[r] += weights[n];
+			}
+		}
+
+		int[] forReturn = new int[kept];
+		int k = 0;
+		for (int n : candidates) {
+			if (!dominated[n]) forReturn[k++] = n;
+		}
+		return forReturn;
+
+	}
+
+	/**
+	 * @return profit of packing items by decreasing profit/weight ratio, skipping those that no longer fit
+	 */
+	private static double greedyProfit(KnapsackRelaxation relaxation, long capacity) {
+		double forReturn = 0;
+		for (int k = 0; k < relaxation.size(); k++) {
+			if (relaxation.weight(k) <= capacity) {
+				capacity -= relaxation.weight(k);
+				forReturn += relaxation.profit(k);
+			}
+		}
+		return forReturn;
+	}
+
+}
@@ -0,0 +1,170 @@
+package com.danielvizzini.util;
+
+/**
+ * Items that can be packed, sorted by decreasing profit/weight ratio, with the fractional (Dantzig) upper bound.<br/>
+ * Items with no profit or that are heavier than capacity are left out, since no optimal packing takes them.
+ */
+final class KnapsackRelaxation {
+
+	private final double[] profits;
+	private final int[] weights;
+	private final int[] order;
+	private final long[] prefixWeights;
+	private final double[] prefixProfits;
+
+	/**
+	 * @param profits the profits of the items, in the same order as weights
+	 * @param weights the weights, in the same units as capacity, of the items
+	 * @param capacity capacity of knapsack
+	 */
+	KnapsackRelaxation(double[] profits, int[] weights, long capacity) {
+
+		this.profits = profits;
+		this.weights = weights;
+
+		//keep only items that can appear in an optimal packing
+		int[] candidates = new int[profits.length];
+		int size = 0;
+		for (int n = 0; n < profits.length; n++) {
+			if (profits[n] > 0 && weights[n] <= capacity) candidates[size++] = n;
+		}
+		this.order = new int[size];
+		System.arraycopy(candidates, 0, this.order, 0, size);
+		sortByRatio(this.order, profits, weights);
+
+		// prefixWeights[k] and prefixProfits[k] = totals of the k best ratio items
+		this.prefixWeights = new long[size + 1];
+		this.prefixProfits = new double[size + 1];
+		for (int k = 0; k < size; k++) {
+			this.prefixWeights[k + 1] = this.prefixWeights[k] + weights[this.order[k]];
+			this.prefixProfits[k + 1] = this.prefixProfits[k] + profits[this.order[k]];
+		}
+	}
+
+	/**
+	 * @return number of items that can be packed
+	 */
+	int size() {
+		return this.order.length;
+	}
+
+	/**
+	 * @param k rank of an item by profit/weight ratio, 0 being the best
+	 * @return the index of that item in the profits and weights arrays
+	 */
+	int item(int k) {
+		return this.order[k];
+	}
+
+	/**
+	 * @return the weight of the item of rank k
+	 */
+	int weight(int k) {
+		return this.weights[this.order[k]];
+	}
+
+	/**
+	 * @return the profit of the item of rank k
+	 */
+	double profit(int k) {
+		return this.profits[this.order[k]];
+	}
+
+	/**
+	 * Fractional (Dantzig) bound: take items by ratio while they fit, then the fitting fraction of the next one
+	 * @param from rank of the first item that may be packed
+	 * @param capacity remaining capacity
+	 * @return upper bound on the profit of packing items of rank from and higher into capacity
+	 */
+	double bound(int from, long capacity) {
+
+		//find the last rank whose items, together with the ones before it, still fit
+		int low = from;
+		int high = this.order.length;
+		long base = this.prefixWeights[from];
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (this.prefixWeights[mid] - base <= capacity) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+
+		double forReturn = this.prefixProfits[low] - this.prefixProfits[from];
+		if (low < this.order.length) {
+			long left = capacity - (this.prefixWeights[low] - base);
+			forReturn += left * profit(low) / weight(low);
+		}
+		return forReturn;
+	}
+
+	/**
+	 * Fractional (Dantzig) bound of all items but one, as if the item of rank k were not there
+	 * @param k rank of the item to leave out
+	 * @param capacity capacity of knapsack
+	 * @return upper bound on the profit of packing every item but the one of rank k into capacity
+	 */
+	double boundWithout(int k, long capacity) {
+
+		//find the last rank whose items, together with the ones before it other than k, still fit
+		int low = 0;
+		int high = this.order.length;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (prefixWeightWithout(k, mid) <= capacity) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+
+		// low is never k, since leaving k out adds no weight between ranks k and k + 1
+		double forReturn = this.prefixProfits[low] - (low > k ? profit(k) : 0);
+		if (low < this.order.length) {
+			long left = capacity - prefixWeightWithout(k, low);
+			forReturn += left * profit(low) / weight(low);
+		}
+		return forReturn;
+	}
+
+	/**
+	 * @return total weight of the items of rank below m other than k
+	 */
+	private long prefixWeightWithout(int k, int m) {
+		return this.prefixWeights[m] - (m > k ? weight(k) : 0);
+	}
+
+	/**
+	 * Sorts item indices by decreasing profit/weight ratio, leaving equal ratios in index order.
+	 * Merge sort on primitives so that no boxing is needed.
+	 */
+	private static void sortByRatio(int[] items, double[] profits, int[] weights) {
+
+		int length = items.length;
+		double[] ratios = new double[profits.length];
+		for (int item : items) {
+			ratios[item] = profits[item] / weights[item];
+		}
+
+		int[] source = items;
+		int[] target = new int[length];
+		for (int width = 1; width < length; width <<= 1) {
+			for (int left = 0; left < length; left += width << 1) {
+				int mid = Math.min(left + width, length);
+				int right = Math.min(left + (width << 1), length);
+				int i = left, j = mid, k = left;
+				while (i < mid && j < right) {
+					target[k++] = ratios[source[j]] > ratios[source[i]] ? source[j++] : source[i++];
+				}
+				while (i < mid) target[k++] = source[i++];
+				while (j < right) target[k++] = source[j++];
+			}
+			int[] swap = source;
+			source = target;
+			target = swap;
+		}
+		if (source != items) System.arraycopy(source, 0, items, 0, length);
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.danielvizzini.util;
+
+/**
+ * Inner loops of the dynamic programs that keep profit rows and a DecisionBits table.<br/>
+ * Columns are visited in blocks of 64 aligned with the words of the decision table. Decisions for a block are gathered
+ * in a local word and stored once, instead of a read-modify-write of the table for every column that takes the item,
+ * and the block loop has no other bookkeeping, so the JIT can unroll it.
+ */
+final class KnapsackRowKernel {
+
+	private KnapsackRowKernel() {
+	}
+
+	/**
+	 * Adds an item to a single profit row in place, walking down so that opt[w - weight] still holds the row before the item
+	 * @param opt profits of the row before the item, overwritten with the row after it
+	 * @param W last column of the row
+	 * @param profit profit of the item
+	 * @param weight weight of the item, in columns
+	 * @param sol decision table, whose words for this row are still clear
+	 * @param row row of sol for the item
+	 */
+	static void relax(double[] opt, int W, double profit, int weight, DecisionBits sol, int row) {
+
+		for (int high = W; high >= weight; ) {
+			int low = Math.max(weight, high & ~63);
+
+			// bit w of word = does taking the item improve column w?
+			long word = 0;
+			for (int w = high; w >= low; w--) {
+				double option2 = profit + opt[w - weight];
+				if (option2 > opt[w]) {
+					opt[w] = option2;
+					word |= 1L << w;
+				}
+			}
+			if (word != 0) sol.setWord(row, high >>> 6, word);
+			high = low - 1;
+		}
+
+	}
+
+	/**
+	 * Fills columns from..to-1 of the row after an item from the row before it, leaving other columns to other callers
+	 * @param previous profits of the row before the item
+	 * @param current row to fill
+	 * @param from first column to fill, a multiple of 64 so that no other caller writes the same words of sol
+	 * @param to one past the last column to fill
+	 * @param profit profit of the item
+	 * @param weight weight of the item, in columns
+	 * @param sol decision table, whose words for this row and columns are still clear
+	 * @param row row of sol for the item
+	 */
+	static void relax(double[] previous, double[] current, int from, int to, double profit, int weight, DecisionBits sol, int row) {
+
+		//columns too narrow for the item keep the previous profit
+		int first = Math.max(from, Math.min(weight, to));
+		System.arraycopy(previous, from, current, from, first - from);
+
+		for (int start = first & ~63; start < to; start += 64) {
+			int end = Math.min(start + 64, to);
+
+			// bit w of word = does taking the item improve column w?
+			long word = 0;
+			for (int w = Math.max(start, first); w < end; w++) {
+				double option1 = previous[w];
+				double option2 = profit + previous[w - weight];
+				if (option2 > option1) {
+					current[w] = option2;
+					word |= 1L << w;
+				} else {
+					current[w] = option1;
+				}
+			}
+			if (word != 0) sol.setWord(row, start >>> 6, word);
+		}
+
+	}
+
+}
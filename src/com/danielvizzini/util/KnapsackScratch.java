@@ -0,0 +1,41 @@
+package com.danielvizzini.util;
+
+import java.util.Arrays;
+
+/**
+ * Working memory that engines reuse from one solve to the next instead of allocating tables for every Knapsack.<br/>
+ * Grows to the largest instance solved with it. Not thread-safe; each thread needs its own.
+ */
+final class KnapsackScratch {
+
+	private double[] row = new double[0];
+	private DecisionBits bits;
+
+	/**
+	 * @param columns number of columns needed
+	 * @return a row of at least columns doubles whose first columns are zeroed
+	 */
+	double[] row(int columns) {
+		if (this.row.length < columns) {
+			this.row = new double[columns];
+		} else {
+			Arrays.fill(this.row, 0, columns, 0);
+		}
+		return this.row;
+	}
+
+	/**
+	 * @param rows number of rows, usually one per item
+	 * @param columns number of columns in each row
+	 * @return a cleared decision table of that shape, reusing the previous table's words when there are enough
+	 */
+	DecisionBits bits(int rows, int columns) {
+		if (this.bits == null) {
+			this.bits = new DecisionBits(rows, columns);
+		} else {
+			this.bits.reset(rows, columns);
+		}
+		return this.bits;
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.danielvizzini.util;
+
+import java.util.Arrays;
+
+/**
+ * Immutable result of a KnapsackSolver: the indices of the items packed, in increasing order, with their total profit and weight
+ * and an upper bound on the profit of an optimal packing.
+ */
+public final class KnapsackSolution {
+
+	private final int[] indices;
+	private final double totalProfit;
+	private final int totalWeight;
+	private final double profitUpperBound;
+
+	/**
+	 * @param take a boolean array of this is true if the corresponding item is packed and false otherwise
+	 * @param profitUpperBound upper bound on the profit of an optimal packing, from KnapsackEngine.upperBound; never reported below the profit of take
+	 */
+	KnapsackSolution(boolean[] take, double[] profits, int[] weights, double profitUpperBound) {
+		int size = 0;
+		for (boolean taken : take) {
+			if (taken) size++;
+		}
+		this.indices = new int[size];
+		double profit = 0;
+		int weight = 0;
+		for (int n = 0, i = 0; n < take.length; n++) {
+			if (take[n]) {
+				this.indices[i++] = n;
+				profit += profits[n];
+				weight += weights[n];
+			}
+		}
+		this.totalProfit = profit;
+		this.totalWeight = weight;
+		this.profitUpperBound = Math.max(profitUpperBound, profit);
+	}
+
+	/**
+	 * @return number of items packed
+	 */
+	public int size() {
+		return this.indices.length;
+	}
+
+	/**
+	 * @param i position among the items packed, from 0 to size() - 1
+	 * @return index, in the items solved, of the i-th item packed
+	 */
+	public int getIndex(int i) {
+		return this.indices[i];
+	}
+
+	/**
+	 * @return indices, in the items solved, of the items packed, in increasing order
+	 */
+	public int[] getIndices() {
+		return this.indices.clone();
+	}
+
+	/**
+	 * @param index index of an item in the items solved
+	 * @return true if that item is packed, false otherwise
+	 */
+	public boolean contains(int index) {
+		return Arrays.binarySearch(this.indices, index) >= 0;
+	}
+
+	/**
+	 * @return total profit of the items packed
+	 */
+	public Double getTotalProfit() {
+		return this.totalProfit;
+	}
+
+	/**
+	 * @return upper bound on the total profit of an optimal packing, equal to getTotalProfit() unless the search stopped early
+	 */
+	public Double getProfitUpperBound() {
+		return this.profitUpperBound;
+	}
+
+	/**
+	 * @return total weight of the items packed
+	 */
+	public Integer getTotalWeight() {
+		return this.totalWeight;
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.danielvizzini.util;
+
+/**
+ * Long-lived solver that packs one instance after another, reusing its dynamic program tables instead of allocating them per solve.<br/>
+ * Tables grow to the largest instance solved and are kept for the next one. Results are KnapsackSolutions, which hold the
+ * indices of the items packed rather than the items, and the items or arrays given are left unchanged. With AUTO, a solve whose
+ * branch and bound runs out of nodes keeps the best packing found, and KnapsackSolution.getProfitUpperBound() bounds the gap.<br/>
+ * Not thread-safe: keep one KnapsackSolver per thread.
+ */
+public class KnapsackSolver {
+
+	private final KnapsackEngine engine;
+	private final KnapsackScratch scratch = new KnapsackScratch();
+
+	/**
+	 * Solver using the algorithm chosen by KnapsackStrategy.select for each instance
+	 */
+	public KnapsackSolver() {
+		this(KnapsackStrategy.AUTO);
+	}
+
+	/**
+	 * @param strategy algorithm used to decide which items are packed (e.g. KnapsackStrategy.AUTO)
+	 */
+	public KnapsackSolver(KnapsackStrategy strategy) {
+		this.engine = strategy.newEngine();
+	}
+
+	/**
+	 * Packs items to maximize profit
+	 * @param profits the profits of the items, in the same order as weights
+	 * @param weights the weights, in the same units as capacity, of the items
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @return the indices of the items packed, with their total profit and weight and a bound on the optimal profit
+	 */
+	public KnapsackSolution solve(double[] profits, int[] weights, int capacity) {
+		if (profits.length != weights.length) throw new IllegalArgumentException("weights and profits arrays must be of equal length");
+		if (capacity < 0) throw new IllegalArgumentException("capacity cannot be negative");
+		for (int weight : weights) {
+			if (weight < 0) throw new IllegalArgumentException("weights cannot be negative");
+		}
+		boolean[] take = this.engine.solve(profits, weights, capacity, this.scratch);
+		return new KnapsackSolution(take, profits, weights, this.engine.upperBound(profits, weights, capacity, take));
+	}
+
+	/**
+	 * Packs items to maximize profit
+	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsack (e.g. a List of Furniture objects)
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @return the indices, in the order knapsackItems iterates, of the items packed, with their total profit and weight
+	 */
+	public KnapsackSolution solve(Iterable<? extends KnapsackItem> knapsackItems, int capacity) {
+		KnapsackColumns columns = KnapsackColumns.of(knapsackItems);
+		return solve(columns.profits, columns.weights, capacity);
+	}
+
+}
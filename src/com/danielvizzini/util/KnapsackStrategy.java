@@ -0,0 +1,161 @@
+package com.danielvizzini.util;
+
+/**
+ * Algorithms available to Knapsack for deciding which items to pack.<br/>
+ * All strategies maximize total profit; they differ in time and memory.
+ */
+public enum KnapsackStrategy {
+
+	/**
+	 * Textbook dynamic program keeping full profit and decision tables, O(N*W) doubles and booleans.
+	 */
+	TABLE(new TableKnapsackEngine()),
+
+	/**
+	 * Dynamic program keeping one profit row and a bit-packed decision table, O(W) doubles plus O(N*W) bits.<br/>
+	 * Takes the same items as TABLE.
+	 */
+	ROLLING(new RollingKnapsackEngine()),
+
+	/**
+	 * Divide-and-conquer dynamic program that recomputes rows instead of storing decisions, O(W) memory.<br/>
+	 * Roughly twice the work of ROLLING; among equally profitable packings it may pick different items.
+	 */
+	LINEAR(new LinearKnapsackEngine()),
+
+	/**
+	 * Dynamic program like ROLLING that fills each wide row in blocks on a ForkJoinPool, using every available processor.<br/>
+	 * Takes the same items as TABLE.
+	 */
+	PARALLEL(new ParallelKnapsackEngine()),
+
+	/**
+	 * Depth-first branch and bound over items sorted by profit/weight ratio, pruned with the fractional (Dantzig) bound.<br/>
+	 * Memory is O(N) whatever the capacity, but worst-case time is exponential.
+	 */
+	BRANCH_AND_BOUND(new BranchAndBoundKnapsackEngine()),
+
+	/**
+	 * Dynamic program indexed by total profit that keeps the minimum weight needed to reach each profit, O(P) longs plus O(N*P) bits
+	 * where P is the total profit.<br/>
+	 * Memory does not depend on capacity. Profits must be integral, or become integral when multiplied by a power of ten up to 10^6.
+	 */
+	PROFIT_INDEXED(new ProfitIndexedKnapsackEngine()),
+
+	/**
+	 * Enumerates every packing of each half of the items and joins the two lists with a sorted sweep, dropping dominated packings.<br/>
+	 * Time and memory are O(2^(N/2)) whatever the capacity, so it suits a few dozen items. At most 62 items with positive profit that fit are accepted.
+	 */
+	MEET_IN_THE_MIDDLE(new MeetInTheMiddleKnapsackEngine()),
+
+	/**
+	 * Sparse dynamic program (Nemhauser-Ullmann) that keeps only the undominated (weight, profit) packings of each prefix of the items.<br/>
+	 * Work and memory grow with the number of undominated packings rather than with capacity, which suits large capacities
+	 * whose weights share no common divisor but combine into few undominated totals.
+	 */
+	PARETO(new ParetoKnapsackEngine()),
+
+	/**
+	 * Dynamic program like ROLLING whose tables are held in direct buffers outside the Java heap and released as soon as the packing is known.<br/>
+	 * Direct buffers are capped by -XX:MaxDirectMemorySize, which defaults to about the maximum heap size, so only tables the heap could also hold fit
+	 * unless that limit is raised; see MAPPED_FILE for tables larger than memory. Takes the same items as TABLE.
+	 */
+	OFF_HEAP(new OffHeapKnapsackEngine(false)),
+
+	/**
+	 * Dynamic program like OFF_HEAP whose tables are held in a memory-mapped temp file, which is deleted as soon as the packing is known.<br/>
+	 * The operating system can page the tables out, so they may exceed physical memory. Takes the same items as TABLE.
+	 */
+	MAPPED_FILE(new OffHeapKnapsackEngine(true)),
+
+	/**
+	 * Picks one of the strategies above for each instance, see select.<br/>
+	 * BRANCH_AND_BOUND is stopped after MAX_BRANCH_AND_BOUND_NODES nodes, keeping the best packing found, so every instance
+	 * finishes in bounded time; Knapsack.getProfitUpperBound() then bounds how far from optimal the packing is.
+	 */
+	AUTO(null);
+
+	/**
+	 * Largest number of table cells, one more than the number of items times columns, that AUTO will solve with a dynamic program
+	 */
+	public static final long MAX_DYNAMIC_PROGRAM_CELLS = 1L << 30;
+
+	/**
+	 * Largest number of columns, each holding a profit row entry of 8 bytes, that AUTO will solve with a dynamic program
+	 */
+	public static final long MAX_DYNAMIC_PROGRAM_COLUMNS = 1L << 24;
+
+	/**
+	 * Smallest number of columns for which AUTO will spread each row across processors
+	 */
+	public static final int MIN_PARALLEL_COLUMNS = 4 * ParallelKnapsackEngine.BLOCK;
+
+	/**
+	 * Largest number of items for which AUTO will use MEET_IN_THE_MIDDLE when a dynamic program is too large
+	 */
+	public static final int MAX_MEET_IN_THE_MIDDLE_ITEMS = 40;
+
+	/**
+	 * Most nodes AUTO lets BRANCH_AND_BOUND visit before returning the best packing found
+	 */
+	public static final long MAX_BRANCH_AND_BOUND_NODES = 1L << 24;
+
+	// engine shared by every solve, or null for AUTO, whose engines are never shared
+	private final KnapsackEngine engine;
+
+	private KnapsackStrategy(KnapsackEngine engine) {
+		this.engine = engine;
+	}
+
+	/**
+	 * Strategy chosen by AUTO for profits that are not known to be integral, see the four parameter select.
+	 * @param itemCount number of items to be packed
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @param weightDivisor greatest common divisor of the items' weights (see MiscUtil.greatestCommonDivisor), or 1 if unknown
+	 * @return the strategy best suited to the instance
+	 */
+	public static KnapsackStrategy select(int itemCount, int capacity, int weightDivisor) {
+		return select(itemCount, capacity, weightDivisor, -1);
+	}
+
+	/**
+	 * Strategy chosen by AUTO.<br/>
+	 * A dynamic program needs one column per multiple of the weights' greatest common divisor up to capacity, whether or not
+	 * that weight is reachable. When there are at most MAX_DYNAMIC_PROGRAM_COLUMNS columns and one more than the number of items times columns
+	 * is at most MAX_DYNAMIC_PROGRAM_CELLS, ROLLING is chosen, or PARALLEL
+	 * if rows are at least MIN_PARALLEL_COLUMNS wide and more than one processor is available. Failing that, MEET_IN_THE_MIDDLE is chosen
+	 * for at most MAX_MEET_IN_THE_MIDDLE_ITEMS items, and PROFIT_INDEXED is chosen
+	 * if it needs no more than MAX_DYNAMIC_PROGRAM_COLUMNS columns and MAX_DYNAMIC_PROGRAM_CELLS cells with one column per unit of total profit. Otherwise BRANCH_AND_BOUND is chosen, which AUTO stops after MAX_BRANCH_AND_BOUND_NODES nodes.
+	 * @param itemCount number of items to be packed
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @param weightDivisor greatest common divisor of the items' weights (see MiscUtil.greatestCommonDivisor), or 1 if unknown
+	 * @param integralProfitTotal total of the items' profits once scaled to be integral, or a negative number if they cannot be
+	 * @return the strategy best suited to the instance
+	 */
+	public static KnapsackStrategy select(int itemCount, int capacity, int weightDivisor, long integralProfitTotal) {
+		long columns = (long) capacity / Math.max(weightDivisor, 1) + 1;
+		if (columns <= MAX_DYNAMIC_PROGRAM_COLUMNS && columns * (itemCount + 1) <= MAX_DYNAMIC_PROGRAM_CELLS) {
+			if (columns >= MIN_PARALLEL_COLUMNS && Runtime.getRuntime().availableProcessors() > 1) return PARALLEL;
+			return ROLLING;
+		}
+		if (itemCount <= MAX_MEET_IN_THE_MIDDLE_ITEMS) return MEET_IN_THE_MIDDLE;
+		if (integralProfitTotal >= 0 && integralProfitTotal < Math.min(MAX_DYNAMIC_PROGRAM_COLUMNS, MAX_DYNAMIC_PROGRAM_CELLS / (itemCount + 1))) return PROFIT_INDEXED;
+		return BRANCH_AND_BOUND;
+	}
+
+	/**
+	 * @return the engine that implements this strategy, which is safe to share; for AUTO a new one, see newEngine
+	 */
+	KnapsackEngine getEngine() {
+		return newEngine();
+	}
+
+	/**
+	 * @return an engine for one solve, whose upperBound describes that solve: a new one for AUTO, whose engine holds the
+	 * outcome of its solve, and the shared stateless one otherwise
+	 */
+	KnapsackEngine newEngine() {
+		return this.engine == null ? new AutoKnapsackEngine() : this.engine;
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.danielvizzini.util;
+
+/**
+ * Dynamic program that reconstructs the packed items in O(W) memory by divide and conquer, like Hirschberg's algorithm.<br/>
+ * The items are split in half, the best profit by capacity is computed for each half, the capacity is split where
+ * the two halves together do best, and each half is solved again with its share of the capacity.<br/>
+ * Does about twice the work of RollingKnapsackEngine but never needs a decision table.
+ */
+final class LinearKnapsackEngine extends KnapsackEngine {
+
+	@Override
+	boolean[] solve(double[] profits, int[] weights, int capacity) {
+
+		int N = profits.length;   // number of items
+		if (N != weights.length) throw new IllegalArgumentException("weights and profits arrays must be of equal length");
+
+		//shrink columns by dividing by greatest common divisor
+		int gcd = weightDivisor(weights);
+		int W = capacity / gcd;
+		int[] scaledWeights = new int[N];
+		for (int n = 0; n < N; n++) {
+			scaledWeights[n] = weights[n] / gcd;
+		}
+
+		//two rows are shared by every level of the recursion
+		boolean[] take = new boolean[N];
+		split(profits, scaledWeights, 0, N, W, new double[W + 1], new double[W + 1], take);
+		return take;
+
+	}
+
+	/**
+	 * Marks which of items from..to-1 are taken in an optimal packing with weight limit W
+	 */
+	private static void split(double[] profits, int[] weights, int from, int to, int W, double[] front, double[] back, boolean[] take) {
+
+		if (to - from == 0) return;
+		if (to - from == 1) {
+			take[from] = weights[from] <= W && profits[from] > 0;
+			return;
+		}
+
+		// front[w] = max profit of packing the first half with weight limit w
+		// back[w] = max profit of packing the second half with weight limit w
+		int mid = (from + to) >>> 1;
+		fillRow(profits, weights, from, mid, W, front);
+		fillRow(profits, weights, mid, to, W, back);
+
+		// give the first half the capacity where both halves together do best
+		int best = 0;
+		for (int w = 1; w <= W; w++) {
+			if (front[w] + back[W - w] > front[best] + back[W - best]) best = w;
+		}
+
+		//rows are no longer needed, so the recursion can reuse them
+		split(profits, weights, from, mid, best, front, back, take);
+		split(profits, weights, mid, to, W - best, front, back, take);
+
+	}
+
+	/**
+	 * Fills row[0..W] with the max profit of packing items from..to-1 with each weight limit
+	 */
+	private static void fillRow(double[] profits, int[] weights, int from, int to, int W, double[] row) {
+		for (int w = 0; w <= W; w++) {
+			row[w] = 0;
+		}
+		for (int n = from; n < to; n++) {
+			int weight = weights[n];
+			double profit = profits[n];
+			for (int w = W; w >= weight; w--) {
+				double option2 = profit + row[w - weight];
+				if (option2 > row[w]) row[w] = option2;
+			}
+		}
+	}
+
+}
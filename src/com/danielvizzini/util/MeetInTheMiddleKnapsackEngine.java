@@ -0,0 +1,139 @@
+package com.danielvizzini.util;
+
+/**
+ * Meet-in-the-middle search: every packing of each half of the items is enumerated, and the two lists are joined by one sorted sweep.<br/>
+ * Each list is built by merging it with a copy of itself shifted by the next item, so it stays sorted by weight without sorting,
+ * and packings that weigh more than another packing of no less profit are dropped as they appear. Time and memory are
+ * O(2^(N/2)) at worst whatever the capacity, so it suits a few dozen items with capacities far beyond a dynamic program.
+ */
+final class MeetInTheMiddleKnapsackEngine extends KnapsackEngine {
+
+	/**
+	 * Largest number of items, counting only those with positive profit that fit, the engine accepts
+	 */
+	static final int MAX_ITEMS = 62;
+
+	@Override
+	boolean[] solve(double[] profits, int[] weights, int capacity) {
+
+		int N = profits.length;
+		if (N != weights.length) throw new IllegalArgumentException("weights and profits arrays must be of equal length");
+
+		//items without profit or too heavy to fit are never taken
+		int[] index = new int[N];
+		int size = 0;
+		for (int n = 0; n < N; n++) {
+			if (profits[n] > 0 && weights[n] <= capacity) index[size++] = n;
+		}
+		if (size > MAX_ITEMS) throw new IllegalArgumentException("meet in the middle cannot pack more than " + MAX_ITEMS + " items");
+
+		int half = size / 2;
+		Packings left = Packings.of(profits, weights, index, 0, half, capacity);
+		Packings right = Packings.of(profits, weights, index, half, size, capacity);
+
+		//walk left up by weight and right down, pairing each left packing with the heaviest right packing that still fits;
+		//both lists gain profit with weight, so that is also the most profitable one
+		double best = -1;
+		int bestLeft = 0;
+		int bestRight = 0;
+		for (int i = 0, j = right.size - 1; i < left.size; i++) {
+			while (left.weights[i] + right.weights[j] > capacity) j--;
+			double profit = left.profits[i] + right.profits[j];
+			if (profit > best) {
+				best = profit;
+				bestLeft = i;
+				bestRight = j;
+			}
+		}
+
+		boolean[] take = new boolean[N];
+		for (int k = 0; k < half; k++) {
+			if ((left.masks[bestLeft] & (1 << k)) != 0) take[index[k]] = true;
+		}
+		for (int k = half; k < size; k++) {
+			if ((right.masks[bestRight] & (1 << (k - half))) != 0) take[index[k]] = true;
+		}
+		return take;
+
+	}
+
+	/**
+	 * Packings of a run of items that no other packing of the run dominates, in order of increasing weight and strictly increasing profit
+	 */
+	private static final class Packings {
+
+		long[] weights;
+		double[] profits;
+		int[] masks;
+		int size;
+
+		/**
+		 * @return packings of the items index[from..to-1] that fit in capacity, with bit k of each mask standing for index[from + k]
+		 */
+		static Packings of(double[] profits, int[] weights, int[] index, int from, int to, int capacity) {
+
+			Packings forReturn = new Packings();
+			forReturn.weights = new long[]{0};
+			forReturn.profits = new double[]{0};
+			forReturn.masks = new int[]{0};
+			forReturn.size = 1;
+
+			for (int k = from; k < to; k++) {
+				forReturn.add(profits[index[k]], weights[index[k]], 1 << (k - from), capacity);
+			}
+			return forReturn;
+
+		}
+
+		/**
+		 * Merges the packings with the same packings plus an item, keeping those that fit and are not dominated
+		 */
+		private void add(double profit, int weight, int bit, int capacity) {
+
+			long[] newWeights = new long[this.size << 1];
+			double[] newProfits = new double[this.size << 1];
+			int[] newMasks = new int[this.size << 1];
+			int newSize = 0;
+
+			int i = 0;// packing without the item
+			int j = 0;// packing with the item
+			while (i < this.size || (j < this.size && this.weights[j] + weight <= capacity)) {
+
+				//take the lighter of the two candidates, or the more profitable one if they weigh the same
+				long candidateWeight;
+				double candidateProfit;
+				int candidateMask;
+				boolean withItem = j < this.size && this.weights[j] + weight <= capacity
+						&& (i == this.size || this.weights[j] + weight < this.weights[i]
+						|| (this.weights[j] + weight == this.weights[i] && this.profits[j] + profit > this.profits[i]));
+				if (withItem) {
+					candidateWeight = this.weights[j] + weight;
+					candidateProfit = this.profits[j] + profit;
+					candidateMask = this.masks[j] | bit;
+					j++;
+				} else {
+					candidateWeight = this.weights[i];
+					candidateProfit = this.profits[i];
+					candidateMask = this.masks[i];
+					i++;
+				}
+
+				//a packing is kept only if it is more profitable than every lighter one
+				if (newSize == 0 || candidateProfit > newProfits[newSize - 1]) {
+					newWeights[newSize] = candidateWeight;
+					newProfits[newSize] = candidateProfit;
+					newMasks[newSize] = candidateMask;
+					newSize++;
+				}
+			}
+
+			this.weights = newWeights;
+			this.profits = newProfits;
+			this.masks = newMasks;
+			this.size = newSize;
+
+		}
+
+	}
+
+}
@@ -0,0 +1,399 @@
+package com.danielvizzini.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ * Implements the multidimensional Knapsack algorithm on construction, packing items limited by several capacities at once (e.g. mass and volume).<br/>
+ * Objects contained within MultidimensionalKnapsack must implement the MultidimensionalKnapsackItem interface.<br/>
+ * Items are packed by depth-first branch and bound, starting from a greedy packing. Multipliers pricing each capacity are tuned
+ * once by subgradient optimization, and fold every resource into one surrogate weight. Each node is pruned with the lesser of
+ * the Lagrangian bound and the fractional (Dantzig) bound of the surrogate knapsack over the items not yet decided, found in
+ * O(D + log N) time from prefix sums. Items are only taken where they fit in every dimension.<br/>
+ * The search visits at most KnapsackStrategy.MAX_BRANCH_AND_BOUND_NODES nodes; if it stops early, the best packing found is kept
+ * and getProfitUpperBound() bounds how far from optimal it is. Memory is O(N) whatever the capacities.
+ * @param <T> A Type that implements the MultidimensionalKnapsackItem interface
+ */
+public class MultidimensionalKnapsack<T extends MultidimensionalKnapsackItem> extends ArrayList<T> {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int SUBGRADIENT_ITERATIONS = 300;
+
+	// relative slack on the bound, so that rounding in the surrogate weights never prunes a better packing
+	private static final double TOLERANCE = 1e-9;
+
+	/**
+	 * @return total amount of each resource used, in the same order as the capacities
+	 */
+	public int[] getTotalResources() {
+		return this.totalResources.clone();
+	}
+	private int[] totalResources;
+
+	/**
+	 * @return total profit of MultidimensionalKnapsack
+	 */
+	public Double getTotalProfit() {
+		return this.totalProfit;
+	}
+	private double totalProfit = 0;
+
+	/**
+	 * @return upper bound on the total profit of an optimal packing, equal to getTotalProfit() unless the search stopped early
+	 */
+	public Double getProfitUpperBound() {
+		return this.profitUpperBound;
+	}
+	private double profitUpperBound = 0;
+
+	/**
+	 * Packs knapsack to maximize profits without exceeding any capacity<br/>
+	 * Items placed in the knapsack are removed from the knapsackItems parameter.
+	 * @param knapsackItems list of items that implement the MultidimensionalKnapsackItem interface to be packed into the knapsack
+	 * @param capacities capacity of knapsack in each resource (e.g. {20000, 150} for a truck that holds 20000 pounds and 150 cubic yards)
+	 */
+	public MultidimensionalKnapsack(Iterable<T> knapsackItems, int[] capacities) {
+		this(knapsackItems, capacities, false);
+	}
+
+	/**
+	 * Packs knapsack to maximize profits without exceeding any capacity<br/>
+	 * The knapsackItems parameter is left unchanged if the replenishItems boolean is true.
+	 * @param knapsackItems list of items that implement the MultidimensionalKnapsackItem interface to be packed into the knapsack
+	 * @param capacities capacity of knapsack in each resource (e.g. {20000, 150} for a truck that holds 20000 pounds and 150 cubic yards)
+	 * @param replenishItems if true, knapsackItems parameter will remain unchanged, otherwise items placed in the knapsack are removed from the knapsackItems parameter
+	 */
+	public MultidimensionalKnapsack(Iterable<T> knapsackItems, int[] capacities, boolean replenishItems) {
+
+		int D = capacities.length;
+		for (int capacity : capacities) {
+			if (capacity < 0) throw new IllegalArgumentException("capacity cannot be negative");
+		}
+
+		//extract profits and resources once
+		ArrayList<T> items = new ArrayList<T>();
+		for (T knapsackItem : knapsackItems) {
+			items.add(knapsackItem);
+		}
+		int N = items.size();
+		double[] profits = new double[N];
+		int[][] resources = new int[N][];
+		for (int n = 0; n < N; n++) {
+			profits[n] = items.get(n).getProfit();
+			resources[n] = items.get(n).getResources().clone();
+			if (resources[n].length != D) throw new IllegalArgumentException("every item must use one amount of each resource");
+			for (int amount : resources[n]) {
+				if (amount < 0) throw new IllegalArgumentException("resources cannot be negative");
+			}
+		}
+
+		boolean[] take = pack(profits, resources, capacities);
+
+		//populate itemsTaken and mark the objects to be removed
+		this.totalResources = new int[D];
+		BitSet toBeRemoved = new BitSet(N);
+		for (int n = 0; n < N; n++) {
+			if (take[n]) {
+				this.add(items.get(n));
+				this.totalProfit += profits[n];
+				for (int d = 0; d < D; d++) {
+					this.totalResources[d] += resources[n][d];
+				}
+				toBeRemoved.set(n);
+			}
+		}
+		this.profitUpperBound = Math.max(this.profitUpperBound, this.totalProfit);
+
+		//remove items in knapsack from original list
+		if (!replenishItems) IterableUtil.removeIndices(knapsackItems, toBeRemoved);
+
+	}
+
+	/**
+	 * @return a boolean array of this is true if the corresponding item should be taken and false otherwise
+	 */
+	private boolean[] pack(final double[] profits, int[][] resources, int[] capacities) {
+
+		int N = profits.length;
+		int D = capacities.length;
+		boolean[] forReturn = new boolean[N];
+
+		//items without profit or that exceed a capacity on their own are never taken
+		ArrayList<Integer> candidates = new ArrayList<Integer>();
+		for (int n = 0; n < N; n++) {
+			if (profits[n] > 0 && fits(resources[n], capacities)) candidates.add(n);
+		}
+		int size = candidates.size();
+		if (size == 0) return forReturn;
+
+		//greedy packing by profit per share of the capacities gives the incumbent
+		final double[] efficiency = new double[N];
+		for (int n : candidates) {
+			double share = 0;
+			for (int d = 0; d < D; d++) {
+				if (resources[n][d] > 0) share += (double) resources[n][d] / capacities[d];
+			}
+			efficiency[n] = share == 0 ? Double.POSITIVE_INFINITY : profits[n] / share;
+		}
+		Collections.sort(candidates, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return Double.compare(efficiency[b], efficiency[a]);
+			}
+		});
+		long[] remaining = new long[D];
+		for (int d = 0; d < D; d++) {
+			remaining[d] = capacities[d];
+		}
+		double best = 0;
+		for (int n : candidates) {
+			if (fits(resources[n], remaining)) {
+				forReturn[n] = true;
+				best += profits[n];
+				for (int d = 0; d < D; d++) {
+					remaining[d] -= resources[n][d];
+				}
+			}
+		}
+
+		//reduced profits under the multipliers, and surrogate weights that fold every resource into one priced by them
+		double[] lambda = multipliers(profits, resources, capacities, candidates, best);
+		double[] price = surrogatePrices(lambda, capacities);
+		final double[] reduced = new double[N];
+		final double[] ratio = new double[N];
+		double[] surrogate = new double[N];
+		for (int n : candidates) {
+			reduced[n] = profits[n];
+			for (int d = 0; d < D; d++) {
+				reduced[n] -= lambda[d] * resources[n][d];
+				surrogate[n] += price[d] * resources[n][d];
+			}
+			ratio[n] = surrogate[n] == 0 ? Double.POSITIVE_INFINITY : profits[n] / surrogate[n];
+		}
+
+		//candidates ordered by profit per surrogate weight, so that the free items at each node are a suffix in Dantzig order
+		Collections.sort(candidates, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return Double.compare(ratio[b], ratio[a]);
+			}
+		});
+		int[] item = new int[size];
+		// tail[k] = sum of the positive reduced profits of the candidates of rank k and after
+		// profitSum[k] and weightSum[k] = total profit and surrogate weight of the candidates ranked before k
+		double[] tail = new double[size + 1];
+		double[] profitSum = new double[size + 1];
+		double[] weightSum = new double[size + 1];
+		for (int k = 0; k < size; k++) {
+			item[k] = candidates.get(k);
+			profitSum[k + 1] = profitSum[k] + profits[item[k]];
+			weightSum[k + 1] = weightSum[k] + surrogate[item[k]];
+		}
+		for (int k = size - 1; k >= 0; k--) {
+			tail[k] = tail[k + 1] + Math.max(0, reduced[item[k]]);
+		}
+
+		// x[k] = is the item of rank k taken on the current path?
+		boolean[] x = new boolean[size];
+		for (int d = 0; d < D; d++) {
+			remaining[d] = capacities[d];
+		}
+		double rootBound = bound(0, remaining, lambda, price, tail, profitSum, weightSum, surrogate, item);
+		int k = 0;
+		double profit = 0;
+		long nodes = 0;
+		while (true) {
+
+			if (k < size && profit + bound(k, remaining, lambda, price, tail, profitSum, weightSum, surrogate, item) > best * (1 + TOLERANCE)) {
+
+				//stop with the best packing found once the node budget is spent, bounding it from the root
+				if (++nodes > KnapsackStrategy.MAX_BRANCH_AND_BOUND_NODES) {
+					this.profitUpperBound = rootBound;
+					return forReturn;
+				}
+
+				//move forward, taking the next item if it fits in every dimension
+				int[] amounts = resources[item[k]];
+				x[k] = fits(amounts, remaining);
+				if (x[k]) {
+					for (int d = 0; d < D; d++) {
+						remaining[d] -= amounts[d];
+					}
+					profit += profits[item[k]];
+				}
+				k++;
+				continue;
+
+			}
+
+			//record leaves that beat the incumbent
+			if (k == size && profit > best) {
+				best = profit;
+				Arrays.fill(forReturn, false);
+				for (int j = 0; j < size; j++) {
+					if (x[j]) forReturn[item[j]] = true;
+				}
+			}
+
+			//backtrack to the last item taken and try leaving it out
+			int j = k - 1;
+			while (j >= 0 && !x[j]) j--;
+			if (j < 0) break;
+			x[j] = false;
+			for (int d = 0; d < D; d++) {
+				remaining[d] += resources[item[j]][d];
+			}
+			profit -= profits[item[j]];
+			k = j + 1;
+
+		}
+
+		return forReturn;
+
+	}
+
+	/**
+	 * Minimizes the Lagrangian bound, in which each capacity is priced by a multiplier, by subgradient optimization
+	 * @param lowerBound profit of a known packing, used to size the steps
+	 * @return multipliers, one per capacity, that give the lowest bound found
+	 */
+	private static double[] multipliers(double[] profits, int[][] resources, int[] capacities, Iterable<Integer> candidates, double lowerBound) {
+
+		int D = capacities.length;
+		double[] lambda = new double[D];
+		double[] forReturn = new double[D];
+
+		//start from the average profit per unit of each resource, split evenly among the resources
+		double total = 0;
+		double[] used = new double[D];
+		for (int n : candidates) {
+			total += profits[n];
+			for (int d = 0; d < D; d++) {
+				used[d] += resources[n][d];
+			}
+		}
+		for (int d = 0; d < D; d++) {
+			if (used[d] > 0) lambda[d] = total / (D * used[d]);
+		}
+
+		double[] subgradient = new double[D];
+		double bestBound = Double.POSITIVE_INFINITY;
+		double scale = 2;
+		int stalled = 0;
+
+		for (int iteration = 0; iteration < SUBGRADIENT_ITERATIONS && scale > 1e-4; iteration++) {
+
+			//take every item whose reduced profit is positive, and see by how much each capacity is exceeded
+			double bound = 0;
+			for (int d = 0; d < D; d++) {
+				bound += lambda[d] * capacities[d];
+				subgradient[d] = capacities[d];
+			}
+			for (int n : candidates) {
+				double reduced = profits[n];
+				for (int d = 0; d < D; d++) {
+					reduced -= lambda[d] * resources[n][d];
+				}
+				if (reduced > 0) {
+					bound += reduced;
+					for (int d = 0; d < D; d++) {
+						subgradient[d] -= resources[n][d];
+					}
+				}
+			}
+
+			if (bound < bestBound) {
+				bestBound = bound;
+				System.arraycopy(lambda, 0, forReturn, 0, D);
+				stalled = 0;
+			} else if (++stalled == 20) {
+				scale /= 2;
+				stalled = 0;
+			}
+			if (bestBound <= lowerBound) break;
+
+			//step against the subgradient, ignoring directions blocked by a multiplier already at zero
+			double norm = 0;
+			for (int d = 0; d < D; d++) {
+				if (subgradient[d] < 0 || lambda[d] > 0) norm += subgradient[d] * subgradient[d];
+			}
+			if (norm == 0) break;
+			double step = scale * (bound - lowerBound) / norm;
+			for (int d = 0; d < D; d++) {
+				lambda[d] = Math.max(0, lambda[d] - step * subgradient[d]);
+			}
+
+		}
+
+		return forReturn;
+
+	}
+
+	/**
+	 * Bound on the profit the candidates of rank k and after can add to a node: the lesser of the Lagrangian bound and the
+	 * fractional (Dantzig) bound of the surrogate knapsack, whose capacity is the room left in every resource priced by price
+	 * @param remaining room left in each resource
+	 */
+	private static double bound(int k, long[] remaining, double[] lambda, double[] price, double[] tail, double[] profitSum, double[] weightSum, double[] surrogate, int[] item) {
+
+		double lagrangian = tail[k];
+		double room = 0;
+		for (int d = 0; d < remaining.length; d++) {
+			lagrangian += lambda[d] * remaining[d];
+			room += price[d] * remaining[d];
+		}
+
+		//the free items are ranks k and after, so the prefix sums find where the surrogate knapsack fills up
+		int size = item.length;
+		double limit = weightSum[k] + room;
+		if (weightSum[size] <= limit) return Math.min(lagrangian, profitSum[size] - profitSum[k]);
+		int low = k;
+		int high = size;
+		while (high - low > 1) {
+			int mid = (low + high) >>> 1;
+			if (weightSum[mid] <= limit) {
+				low = mid;
+			} else {
+				high = mid;
+			}
+		}
+		//ranks k..low-1 fit whole and rank low fits in part
+		double dantzig = profitSum[low] - profitSum[k] + (limit - weightSum[low]) / surrogate[item[low]] * (profitSum[low + 1] - profitSum[low]);
+		return Math.min(lagrangian, dantzig);
+
+	}
+
+	/**
+	 * @return price of a unit of each resource in the surrogate knapsack: the multipliers, or each capacity's share of the
+	 * knapsack if the multipliers are all zero
+	 */
+	private static double[] surrogatePrices(double[] lambda, int[] capacities) {
+		double[] forReturn = lambda.clone();
+		for (double multiplier : lambda) {
+			if (multiplier > 0) return forReturn;
+		}
+		for (int d = 0; d < capacities.length; d++) {
+			forReturn[d] = capacities[d] == 0 ? 0 : 1.0 / capacities[d];
+		}
+		return forReturn;
+	}
+
+	private static boolean fits(int[] amounts, int[] capacities) {
+		for (int d = 0; d < amounts.length; d++) {
+			if (amounts[d] > capacities[d]) return false;
+		}
+		return true;
+	}
+
+	private static boolean fits(int[] amounts, long[] remaining) {
+		for (int d = 0; d < amounts.length; d++) {
+			if (amounts[d] > remaining[d]) return false;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.danielvizzini.util;
+
+/**
+ * Interface for items packed into a knapsack limited in several resources at once, e.g. a truck limited by both mass and volume
+ */
+public interface MultidimensionalKnapsackItem {
+
+	/**
+	 * @return the profit of the knapsack item (e.g. the value of a jug of olive oil)
+	 */
+	public abstract Double getProfit();
+
+	/**
+	 * @return the amount of each resource the knapsack item uses, in the same order as the knapsack's capacities (e.g. {mass, volume} of a jug of olive oil)
+	 */
+	public abstract int[] getResources();
+
+}
@@ -0,0 +1,297 @@
+package com.danielvizzini.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Packs a fleet of knapsacks of different capacities from one list of items, so that no item is packed twice.<br/>
+ * Holds one Knapsack per capacity, in the order the capacities are given.<br/>
+ * Knapsacks are first filled from the smallest capacity up, each with an optimal packing of the items the smaller ones left behind.
+ * That packing is the incumbent of a depth-first branch and bound that assigns items, by decreasing profit/weight ratio, to each
+ * knapsack they fit in or to none, pruned with the fractional (Dantzig) bound of one knapsack as big as the fleet's remaining
+ * capacity (the surrogate relaxation). Knapsacks with the same room left are interchangeable, so an item is tried in only one of them.
+ * The search visits at most KnapsackStrategy.MAX_BRANCH_AND_BOUND_NODES nodes; if it stops early, the best packing found is kept
+ * and getProfitUpperBound() bounds how far from optimal it is.
+ * @param <T> A Type that implements the KnapsackItem interface
+ */
+public class MultipleKnapsack<T extends KnapsackItem> extends ArrayList<Knapsack<T>> {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * @return total weight of all knapsacks
+	 */
+	public Integer getTotalWeight() {
+		return this.totalWeight;
+	}
+	private Integer totalWeight = 0;
+
+	/**
+	 * @return total profit of all knapsacks
+	 */
+	public Double getTotalProfit() {
+		return this.totalProfit;
+	}
+	private Double totalProfit = 0.0;
+
+	/**
+	 * @return upper bound on the total profit of an optimal packing of the fleet, equal to getTotalProfit() unless the search stopped early,
+	 * in which case it is the fractional (Dantzig) bound of one knapsack as big as the whole fleet
+	 */
+	public Double getProfitUpperBound() {
+		return this.profitUpperBound;
+	}
+	private Double profitUpperBound = 0.0;
+
+	/**
+	 * Packs knapsacks to maximize profits as specified in KnapsackItems<br/>
+	 * KnapsackItems placed in any of the knapsacks are removed from the knapsackItems parameter.
+	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsacks (e.g. a List of Furniture objects)
+	 * @param capacities capacity of each knapsack (e.g. {150, 150, 80} for two 150 cubic-yard trucks and one 80 cubic-yard truck)
+	 */
+	public MultipleKnapsack(Iterable<T> knapsackItems, int[] capacities) {
+		this(knapsackItems, capacities, false);
+	}
+
+	/**
+	 * Packs knapsacks to maximize profits as specified in KnapsackItems<br/>
+	 * The knapsackItems parameter is left unchanged if the replenishItems boolean is true.
+	 * @param knapsackItems list of items that implement the KnapsackItem interface to be packed into the knapsacks (e.g. a List of Furniture objects)
+	 * @param capacities capacity of each knapsack (e.g. {150, 150, 80} for two 150 cubic-yard trucks and one 80 cubic-yard truck)
+	 * @param replenishItems if true, knapsackItems parameter will remain unchanged, otherwise KnapsackItems placed in any of the knapsacks are removed from the knapsackItems parameter
+	 */
+	public MultipleKnapsack(Iterable<T> knapsackItems, int[] capacities, boolean replenishItems) {
+
+		ArrayList<T> items = new ArrayList<T>();
+		for (T knapsackItem : knapsackItems) {
+			items.add(knapsackItem);
+		}
+		KnapsackColumns columns = KnapsackColumns.of(items);
+		int N = columns.size();
+
+		long fleetCapacity = 0;
+		int largestCapacity = 0;
+		for (int capacity : capacities) {
+			if (capacity < 0) throw new IllegalArgumentException("capacity cannot be negative");
+			fleetCapacity += capacity;
+			largestCapacity = Math.max(largestCapacity, capacity);
+		}
+
+		//items without profit or that no knapsack can hold are never packed
+		boolean[] packed = new boolean[N];
+		for (int n = 0; n < N; n++) {
+			packed[n] = !(columns.profits[n] > 0) || columns.weights[n] > largestCapacity;
+		}
+
+		//fill knapsacks from the smallest capacity up, then search for a better assignment
+		int[] order = smallestFirst(capacities);
+		boolean[][] takes = new boolean[capacities.length][];
+		for (int k : order) {
+			takes[k] = packOne(columns, packed, capacities[k]);
+		}
+		boolean complete = improve(columns, capacities, order, largestCapacity, takes);
+
+		//report knapsacks in the order their capacities were given
+		for (int k = 0; k < capacities.length; k++) {
+			Knapsack<T> knapsack = new Knapsack<T>(items, takes[k], 0);
+			this.add(knapsack);
+			this.totalWeight += knapsack.getTotalWeight();
+			this.totalProfit += knapsack.getTotalProfit();
+		}
+		BitSet toBeRemoved = new BitSet(N);
+		for (int n = 0; n < N; n++) {
+			for (boolean[] take : takes) {
+				if (take[n]) {
+					toBeRemoved.set(n);
+					break;
+				}
+			}
+		}
+		this.profitUpperBound = complete ? this.totalProfit
+				: Math.max(this.totalProfit, new KnapsackRelaxation(columns.profits, columns.weights, largestCapacity).bound(0, fleetCapacity));
+
+		//remove items in knapsacks from original list
+		if (!replenishItems) IterableUtil.removeIndices(knapsackItems, toBeRemoved);
+
+	}
+
+	/**
+	 * Branch and bound over the knapsack each item is packed in, if any, starting from the packing in takes
+	 * @param order indices of capacities, from the smallest capacity to the largest
+	 * @param takes packing of each knapsack, replaced by a better one if found
+	 * @return true if the whole tree was searched, so that takes is optimal, false if the node budget ran out
+	 */
+	private static boolean improve(KnapsackColumns columns, int[] capacities, int[] order, int largestCapacity, boolean[][] takes) {
+
+		int K = order.length;
+		KnapsackRelaxation relaxation = new KnapsackRelaxation(columns.profits, columns.weights, largestCapacity);
+		int M = relaxation.size();
+		if (K == 0 || M == 0) return true;
+
+		// assigned[i] = position in order of the knapsack the item of rank i is packed in, K if none, or UNVISITED
+		// bestAssigned = assigned in the best packing found, starting with the one in takes
+		final int UNVISITED = -2;
+		int[] assigned = new int[M + 1];
+		int[] bestAssigned = new int[M];
+		double best = 0;
+		for (int i = 0; i < M; i++) {
+			bestAssigned[i] = K;
+			for (int j = 0; j < K; j++) {
+				if (takes[order[j]][relaxation.item(i)]) {
+					bestAssigned[i] = j;
+					best += relaxation.profit(i);
+				}
+			}
+		}
+
+		// residual[j] = room left in the j-th smallest knapsack on the current path
+		long[] residual = new long[K];
+		long totalResidual = 0;
+		for (int j = 0; j < K; j++) {
+			residual[j] = capacities[order[j]];
+			totalResidual += residual[j];
+		}
+
+		boolean complete = true;
+		boolean improved = false;
+		long nodes = 0;
+		double profit = 0;
+		int depth = 0;
+		assigned[0] = UNVISITED;
+		while (depth >= 0) {
+
+			if (assigned[depth] == UNVISITED) {
+
+				//give up on the rest of the tree once the node budget is spent
+				if (++nodes > KnapsackStrategy.MAX_BRANCH_AND_BOUND_NODES) {
+					complete = false;
+					break;
+				}
+
+				//every path is a packing, with the items below it left out
+				if (profit > best) {
+					best = profit;
+					improved = true;
+					System.arraycopy(assigned, 0, bestAssigned, 0, depth);
+					for (int i = depth; i < M; i++) {
+						bestAssigned[i] = K;
+					}
+				}
+
+				//prune if even packing the rest fractionally into the room left cannot beat the best
+				if (depth == M || profit + relaxation.bound(depth, totalResidual) <= best) {
+					depth--;
+					continue;
+				}
+				assigned[depth] = -1;
+
+			} else if (assigned[depth] < K) {
+
+				//take the item back out of the knapsack tried last
+				residual[assigned[depth]] += relaxation.weight(depth);
+				totalResidual += relaxation.weight(depth);
+				profit -= relaxation.profit(depth);
+
+			}
+
+			//try the next knapsack the item fits in, skipping ones with the same room as a knapsack already tried, then no knapsack
+			int weight = relaxation.weight(depth);
+			int next = assigned[depth] + 1;
+			for (; next < K; next++) {
+				if (residual[next] < weight) continue;
+				boolean tried = false;
+				for (int j = 0; j < next && !tried; j++) {
+					tried = residual[j] == residual[next];
+				}
+				if (!tried) break;
+			}
+			if (next < K) {
+				residual[next] -= weight;
+				totalResidual -= weight;
+				profit += relaxation.profit(depth);
+			} else if (assigned[depth] == K) {
+				depth--;
+				continue;
+			}
+			assigned[depth] = next;
+			assigned[++depth] = UNVISITED;
+
+		}
+
+		// hand each item to the knapsack it is assigned to
+		if (improved) {
+			for (boolean[] take : takes) {
+				Arrays.fill(take, false);
+			}
+			for (int i = 0; i < M; i++) {
+				if (bestAssigned[i] < K) takes[order[bestAssigned[i]]][relaxation.item(i)] = true;
+			}
+		}
+		return complete;
+
+	}
+
+	/**
+	 * Packs one knapsack from the items not yet packed, and marks the ones it takes as packed
+	 * @return a boolean array of this is true if the corresponding item is taken by this knapsack and false otherwise
+	 */
+	private static boolean[] packOne(KnapsackColumns columns, boolean[] packed, int capacity) {
+
+		int N = columns.size();
+		boolean[] take = new boolean[N];
+
+		//gather the remaining items that fit
+		int[] index = new int[N];
+		int size = 0;
+		long remainingWeight = 0;
+		for (int n = 0; n < N; n++) {
+			if (!packed[n] && columns.weights[n] <= capacity) {
+				index[size++] = n;
+				remainingWeight += columns.weights[n];
+			}
+		}
+		if (size == 0) return take;
+
+		//take everything if it all fits, otherwise run the algorithm on what is left
+		if (remainingWeight <= capacity) {
+			for (int i = 0; i < size; i++) {
+				take[index[i]] = true;
+			}
+		} else {
+			double[] profits = new double[size];
+			int[] weights = new int[size];
+			for (int i = 0; i < size; i++) {
+				profits[i] = columns.profits[index[i]];
+				weights[i] = columns.weights[index[i]];
+			}
+			boolean[] subTake = KnapsackStrategy.AUTO.newEngine().solve(profits, weights, capacity);
+			for (int i = 0; i < size; i++) {
+				take[index[i]] = subTake[i];
+			}
+		}
+
+		for (int n = 0; n < N; n++) {
+			if (take[n]) packed[n] = true;
+		}
+		return take;
+
+	}
+
+	/**
+	 * @return indices of capacities, ordered from the smallest capacity to the largest
+	 */
+	private static int[] smallestFirst(int[] capacities) {
+		int[] forReturn = new int[capacities.length];
+		for (int k = 0; k < capacities.length; k++) {
+			int j = k;
+			while (j > 0 && capacities[forReturn[j - 1]] > capacities[k]) {
+				forReturn[j] = forReturn[j - 1];
+				j--;
+			}
+			forReturn[j] = k;
+		}
+		return forReturn;
+	}
+
+}
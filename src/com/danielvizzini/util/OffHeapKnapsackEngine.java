@@ -0,0 +1,72 @@
+package com.danielvizzini.util;
+
+/**
+ * Dynamic program like RollingKnapsackEngine whose profit row and decision table live outside the Java heap.<br/>
+ * The tables are held in direct buffers, or in a memory-mapped temp file that the operating system can page out, and are
+ * released as soon as the items to take are known, so large solves neither grow the heap nor wait for a full collection.
+ * Takes the same items as RollingKnapsackEngine.
+ */
+final class OffHeapKnapsackEngine extends KnapsackEngine {
+
+	private final boolean mapped;
+
+	/**
+	 * @param mapped if true, tables are held in a memory-mapped temp file, otherwise in direct buffers
+	 */
+	OffHeapKnapsackEngine(boolean mapped) {
+		this.mapped = mapped;
+	}
+
+	@Override
+	boolean[] solve(double[] profits, int[] weights, int capacity) {
+
+		int N = profits.length;   // number of items
+		if (N != weights.length) throw new IllegalArgumentException("weights and profits arrays must be of equal length");
+
+		//shrink columns by dividing by greatest common divisor
+		int gcd = weightDivisor(weights);
+		int W = capacity / gcd;
+
+		// longs [0, W] = opt[w] = max profit of packing the items seen so far with weight limit w * gcd
+		// longs from W + 1 = sol, a row of rowWords words per item, bit w of row n = does opt solution to pack items 1..n with weight limit w * gcd include item n?
+		long rowWords = DecisionBits.wordsPerRow(W + 1);
+		long solStart = W + 1L;
+		OffHeapLongs table = this.mapped ? OffHeapLongs.mapped(solStart + N * rowWords) : OffHeapLongs.direct(solStart + N * rowWords);
+		try {
+
+			for (int n = 0; n < N; n++) {
+				int weight = weights[n] / gcd;
+				long rowStart = solStart + n * rowWords;
+
+				// walk down so that opt[w - weight] still holds the row of items 1..n-1, gathering each word of decisions before writing it once
+				long word = 0;
+				for (int w = W; w >= weight; w--) {
+					double option2 = profits[n] + table.getDouble(w - weight);
+					if (option2 > table.getDouble(w)) {
+						table.putDouble(w, option2);
+						word |= 1L << w;
+					}
+					if ((w & 63) == 0 || w == weight) {
+						if (word != 0) table.putLong(rowStart + (w >>> 6), word);
+						word = 0;
+					}
+				}
+			}
+
+			// determine which items to take
+			boolean[] take = new boolean[N];
+			for (int n = N - 1, w = W; n >= 0; n--) {
+				if ((table.getLong(solStart + n * rowWords + (w >>> 6)) & (1L << w)) != 0) {
+					take[n] = true;
+					w -= weights[n] / gcd;
+				}
+			}
+			return take;
+
+		} finally {
+			table.close();
+		}
+
+	}
+
+}
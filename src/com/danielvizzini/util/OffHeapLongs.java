@@ -0,0 +1,193 @@
+package com.danielvizzini.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+
+/**
+ * Array of longs held outside the Java heap, in direct buffers or in a memory-mapped temp file.<br/>
+ * Split into chunks of at most 2^CHUNK_SHIFT longs, since one buffer cannot exceed 2GB. Memory is released by close
+ * rather than left to the garbage collector, and the temp file, if any, is deleted. Nothing may be read or written after close.
+ */
+final class OffHeapLongs implements Closeable {
+
+	/**
+	 * Base-2 logarithm of the number of longs in a chunk, 1GB per chunk
+	 */
+	static final int CHUNK_SHIFT = 27;
+
+	// handles to release a direct or mapped buffer at once, looked up once; null if this JVM offers none
+	private static final Object UNSAFE;
+	private static final Method INVOKE_CLEANER;
+	static {
+		Object unsafe = null;
+		Method invokeCleaner = null;
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			unsafe = theUnsafe.get(null);
+		} catch (Exception e) {
+			//before Java 9, buffers are released through their own cleaner instead
+			invokeCleaner = null;
+		}
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+
+	private final int chunkShift;
+	private final long size;
+	private ByteBuffer[] chunks;
+	private RandomAccessFile randomAccessFile;
+	private File file;
+
+	private OffHeapLongs(long size, int chunkShift) {
+		if (size < 0) throw new IllegalArgumentException("size cannot be negative");
+		this.size = size;
+		this.chunkShift = chunkShift;
+		this.chunks = new ByteBuffer[(int) ((size + (1L << chunkShift) - 1) >>> chunkShift)];
+	}
+
+	/**
+	 * @param size number of longs, all initially zero
+	 * @return longs held in direct buffers, which count against the JVM's direct memory limit (-XX:MaxDirectMemorySize, by default about -Xmx)
+	 */
+	static OffHeapLongs direct(long size) {
+		return direct(size, CHUNK_SHIFT);
+	}
+
+	static OffHeapLongs direct(long size, int chunkShift) {
+		OffHeapLongs forReturn = new OffHeapLongs(size, chunkShift);
+		boolean allocated = false;
+		try {
+			for (int c = 0; c < forReturn.chunks.length; c++) {
+				forReturn.chunks[c] = ByteBuffer.allocateDirect(forReturn.chunkLength(c) << 3).order(ByteOrder.nativeOrder());
+			}
+			allocated = true;
+		} finally {
+			//release the chunks already allocated if a later one fails
+			if (!allocated) forReturn.close();
+		}
+		return forReturn;
+	}
+
+	/**
+	 * @param size number of longs, all initially zero
+	 * @return longs held in a temp file mapped into memory, so the operating system can page them out
+	 * @throws IllegalStateException if the temp file cannot be created or mapped
+	 */
+	static OffHeapLongs mapped(long size) {
+		return mapped(size, CHUNK_SHIFT);
+	}
+
+	static OffHeapLongs mapped(long size, int chunkShift) {
+		OffHeapLongs forReturn = new OffHeapLongs(size, chunkShift);
+		boolean mapped = false;
+		try {
+			forReturn.file = File.createTempFile("knapsack", ".table");
+			forReturn.randomAccessFile = new RandomAccessFile(forReturn.file, "rw");
+			forReturn.randomAccessFile.setLength(size << 3);
+			FileChannel channel = forReturn.randomAccessFile.getChannel();
+			for (int c = 0; c < forReturn.chunks.length; c++) {
+				long position = (long) c << chunkShift << 3;
+				forReturn.chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE, position, forReturn.chunkLength(c) << 3).order(ByteOrder.nativeOrder());
+			}
+			mapped = true;
+		} catch (IOException e) {
+			throw new IllegalStateException("could not map a temp file for the table", e);
+		} finally {
+			//unmap and delete the temp file if anything failed
+			if (!mapped) forReturn.close();
+		}
+		return forReturn;
+	}
+
+	/**
+	 * @return number of longs
+	 */
+	long size() {
+		return this.size;
+	}
+
+	/**
+	 * @return temp file the longs are mapped from, or null if they are held in direct buffers or closed
+	 */
+	File getFile() {
+		return this.file;
+	}
+
+	long getLong(long index) {
+		return this.chunks[(int) (index >>> this.chunkShift)].getLong((int) (index & ((1L << this.chunkShift) - 1)) << 3);
+	}
+
+	void putLong(long index, long value) {
+		this.chunks[(int) (index >>> this.chunkShift)].putLong((int) (index & ((1L << this.chunkShift) - 1)) << 3, value);
+	}
+
+	double getDouble(long index) {
+		return this.chunks[(int) (index >>> this.chunkShift)].getDouble((int) (index & ((1L << this.chunkShift) - 1)) << 3);
+	}
+
+	void putDouble(long index, double value) {
+		this.chunks[(int) (index >>> this.chunkShift)].putDouble((int) (index & ((1L << this.chunkShift) - 1)) << 3, value);
+	}
+
+	/**
+	 * Releases the memory, then deletes the temp file, if any, now that nothing maps it. Calling close again has no effect.
+	 */
+	@Override
+	public void close() {
+		if (this.chunks == null) return;
+		ByteBuffer[] released = this.chunks;
+		this.chunks = null;
+		for (ByteBuffer chunk : released) {
+			if (chunk != null) free(chunk);
+		}
+		if (this.randomAccessFile != null) {
+			try {
+				this.randomAccessFile.close();
+			} catch (IOException e) {
+				//nothing left to write, so the file is deleted all the same
+			}
+		}
+		if (this.file != null) {
+			try {
+				Files.deleteIfExists(this.file.toPath());
+				this.file = null;
+			} catch (IOException e) {
+				//left for the operating system's temp directory cleanup
+			}
+		}
+	}
+
+	private int chunkLength(int c) {
+		return (int) Math.min(this.size - ((long) c << this.chunkShift), 1L << this.chunkShift);
+	}
+
+	/**
+	 * Releases a direct or mapped buffer now, or leaves it to the garbage collector if this JVM offers no way to
+	 */
+	private static void free(ByteBuffer buffer) {
+		try {
+			if (INVOKE_CLEANER != null) {
+				INVOKE_CLEANER.invoke(UNSAFE, buffer);
+			} else {
+				Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				Object cleaner = cleanerMethod.invoke(buffer);
+				if (cleaner != null) cleaner.getClass().getMethod("clean").invoke(cleaner);
+			}
+		} catch (Exception e) {
+			//the garbage collector will release it
+		}
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.danielvizzini.util;
+
+/**
+ * Accepts or rejects items one at a time as they arrive, e.g. orders streaming in against a truck's capacity, without seeing those still to come.<br/>
+ * An item is accepted if it fits and its profit/weight ratio is at least a threshold that rises as the knapsack fills. With ratios between
+ * minRatio and maxRatio, the threshold is minRatio until a fraction 1 / (1 + ln(maxRatio / minRatio)) of capacity is used and
+ * (maxRatio * e / minRatio)^z * minRatio / e once a fraction z is used. When items are small next to capacity, this earns at least
+ * 1 / (1 + ln(maxRatio / minRatio)) of the profit of the best packing chosen knowing every item in advance, which no online policy
+ * can improve on by more than a constant factor.<br/>
+ * Each decision takes constant time, and items are not retained, so memory does not grow with the stream. Not thread-safe.
+ */
+public class OnlineKnapsack {
+
+	private final int capacity;
+	private final double minRatio;
+	private final double maxRatio;
+
+	// fraction of capacity below which the threshold stays at minRatio
+	private final double flatFraction;
+
+	/**
+	 * @return total weight of the items accepted
+	 */
+	public Integer getTotalWeight() {
+		return this.totalWeight;
+	}
+	private int totalWeight = 0;
+
+	/**
+	 * @return total profit of the items accepted
+	 */
+	public Double getTotalProfit() {
+		return this.totalProfit;
+	}
+	private double totalProfit = 0;
+
+	/**
+	 * @return number of items accepted
+	 */
+	public long getAcceptedCount() {
+		return this.acceptedCount;
+	}
+	private long acceptedCount = 0;
+
+	/**
+	 * @return number of items rejected
+	 */
+	public long getRejectedCount() {
+		return this.rejectedCount;
+	}
+	private long rejectedCount = 0;
+
+	/**
+	 * Accepts every item that fits and whose profit/weight ratio is at least threshold
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @param threshold smallest profit/weight ratio accepted
+	 */
+	public OnlineKnapsack(int capacity, double threshold) {
+		this(capacity, threshold, threshold);
+	}
+
+	/**
+	 * Accepts items with a threshold that rises from minRatio to maxRatio as the knapsack fills
+	 * @param capacity capacity of knapsack (e.g. 150 for a 150 cubic-yard truck)
+	 * @param minRatio smallest profit/weight ratio expected, below which items are always rejected
+	 * @param maxRatio largest profit/weight ratio expected
+	 */
+	public OnlineKnapsack(int capacity, double minRatio, double maxRatio) {
+		if (capacity < 0) throw new IllegalArgumentException("capacity cannot be negative");
+		if (!(minRatio > 0) || !(maxRatio >= minRatio) || Double.isInfinite(maxRatio)) throw new IllegalArgumentException("ratios must satisfy 0 < minRatio <= maxRatio");
+		this.capacity = capacity;
+		this.minRatio = minRatio;
+		this.maxRatio = maxRatio;
+		this.flatFraction = 1 / (1 + Math.log(maxRatio / minRatio));
+	}
+
+	/**
+	 * @return capacity of knapsack
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * @return smallest profit/weight ratio the next item must have to be accepted
+	 */
+	public double getThreshold() {
+		double z = this.capacity == 0 ? 1 : (double) this.totalWeight / this.capacity;
+		if (z <= this.flatFraction) return this.minRatio;
+		return Math.pow(this.maxRatio * Math.E / this.minRatio, z) * this.minRatio / Math.E;
+	}
+
+	/**
+	 * Decides whether to pack an item, which cannot be reconsidered later
+	 * @param knapsackItem item that has just arrived
+	 * @return true if the item is accepted, false otherwise
+	 */
+	public boolean offer(KnapsackItem knapsackItem) {
+		return offer(KnapsackColumns.profit(knapsackItem), KnapsackColumns.weight(knapsackItem));
+	}
+
+	/**
+	 * Decides whether to pack an item, which cannot be reconsidered later
+	 * @param profit profit of the item that has just arrived
+	 * @param weight weight of the item that has just arrived
+	 * @return true if the item is accepted, false otherwise
+	 */
+	public boolean offer(double profit, int weight) {
+		if (weight < 0) throw new IllegalArgumentException("weights cannot be negative");
+
+		//weightless items are worth taking whenever they are worth anything
+		boolean accept = profit > 0 && weight <= this.capacity - this.totalWeight
+				&& (weight == 0 || profit >= getThreshold() * weight);
+		if (accept) {
+			this.totalWeight += weight;
+			this.totalProfit += profit;
+			this.acceptedCount++;
+		} else {
+			this.rejectedCount++;
+		}
+		return accept;
+	}
+
+}
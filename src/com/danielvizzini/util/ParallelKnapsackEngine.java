@@ -0,0 +1,127 @@
+package com.danielvizzini.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Dynamic program that computes each row of the profit table on a ForkJoinPool.<br/>
+ * Every cell of row n depends only on row n-1, so the capacity axis is split into blocks that are filled concurrently.
+ * Rows narrower than BLOCK columns are filled on the calling thread. Takes the same items as RollingKnapsackEngine.
+ */
+final class ParallelKnapsackEngine extends KnapsackEngine {
+
+	/**
+	 * Columns filled by a single task, a multiple of 64 so that blocks never share a word of the decision table
+	 */
+	static final int BLOCK = 1 << 14;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Engine that runs on a pool shared by all parallel knapsacks, sized to the number of available processors
+	 */
+	ParallelKnapsackEngine() {
+		this(null);
+	}
+
+	/**
+	 * @param pool pool that rows are computed on, or null to use the shared pool
+	 */
+	ParallelKnapsackEngine(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	boolean[] solve(double[] profits, int[] weights, int capacity) {
+
+		int N = profits.length;   // number of items
+		if (N != weights.length) throw new IllegalArgumentException("weights and profits arrays must be of equal length");
+
+		//shrink columns by dividing by greatest common divisor
+		int gcd = weightDivisor(weights);
+		int W = capacity / gcd;
+
+		// previous[w] = max profit of packing items 1..n-1 with weight limit w * gcd
+		// current[w] = max profit of packing items 1..n with weight limit w * gcd
+		// sol(n, w) = does opt solution to pack items 1..n with weight limit w * gcd include item n?
+		double[] previous = new double[W + 1];
+		double[] current = new double[W + 1];
+		DecisionBits sol = new DecisionBits(N, W + 1);
+		ForkJoinPool rowPool = W + 1 > BLOCK ? (this.pool == null ? SharedPool.POOL : this.pool) : null;
+
+		for (int n = 0; n < N; n++) {
+			RowTask task = new RowTask(previous, current, sol, n, profits[n], weights[n] / gcd, 0, W + 1);
+			if (rowPool == null) {
+				task.compute();
+			} else {
+				rowPool.invoke(task);
+			}
+			double[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+
+		// determine which items to take
+		boolean[] take = new boolean[N];
+		for (int n = N - 1, w = W; n >= 0; n--) {
+			if (sol.get(n, w)) {
+				take[n] = true;
+				w -= weights[n] / gcd;
+			}
+		}
+
+		return take;
+
+	}
+
+	/**
+	 * Fills columns from..to-1 of one row, splitting itself in two while wider than BLOCK
+	 */
+	private static final class RowTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final double[] previous;
+		private final double[] current;
+		private final DecisionBits sol;
+		private final int n;
+		private final double profit;
+		private final int weight;
+		private final int from;
+		private final int to;
+
+		RowTask(double[] previous, double[] current, DecisionBits sol, int n, double profit, int weight, int from, int to) {
+			this.previous = previous;
+			this.current = current;
+			this.sol = sol;
+			this.n = n;
+			this.profit = profit;
+			this.weight = weight;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+
+			if (to - from > BLOCK) {
+				//split on a multiple of 64 so the halves write to different words of sol
+				int mid = ((from + to) >>> 1) & ~63;
+				invokeAll(new RowTask(previous, current, sol, n, profit, weight, from, mid),
+						new RowTask(previous, current, sol, n, profit, weight, mid, to));
+				return;
+			}
+
+			KnapsackRowKernel.relax(previous, current, from, to, profit, weight, sol, n);
+		}
+
+	}
+
+	/**
+	 * Holds the default pool so that it is only created once a parallel solve needs it
+	 */
+	private static final class SharedPool {
+		static final ForkJoinPool POOL = new ForkJoinPool();
+	}
+
+}
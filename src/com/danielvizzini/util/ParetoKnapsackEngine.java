@@ -0,0 +1,116 @@
+package com.danielvizzini.util;
+
+import java.util.Arrays;
+
+/**
+ * Sparse dynamic program (Nemhauser-Ullmann) that keeps, for each prefix of the items, only the packings no other packing dominates.<br/>
+ * The list for a prefix is sorted by weight with strictly increasing profits, and is built by merging the previous list with
+ * a copy of itself shifted by the next item, dropping dominated packings and those heavier than capacity as it goes. Work and
+ * memory are proportional to the total length of the lists rather than to capacity, so instances with few undominated weights
+ * need no column per unit of capacity. Only the current list keeps weights and profits; earlier lists keep one int per packing
+ * linking it to the packing it extends, which is all the reconstruction needs.
+ */
+final class ParetoKnapsackEngine extends KnapsackEngine {
+
+	/**
+	 * Largest total number of packings, over all lists, the engine keeps
+	 */
+	static final int MAX_STATES = 1 << 30;
+
+	@Override
+	boolean[] solve(double[] profits, int[] weights, int capacity) {
+
+		int N = profits.length;
+		if (N != weights.length) throw new IllegalArgumentException("weights and profits arrays must be of equal length");
+		boolean[] take = new boolean[N];
+
+		// weights[i] and profits[i] of the current list, and the next list being merged
+		long[] listWeights = {0};
+		double[] listProfits = {0};
+		long[] nextWeights = new long[2];
+		double[] nextProfits = new double[2];
+		int size = 1;
+
+		// links[s] = (index of the packing that packing s extends << 1) | (1 if s adds its item), for every packing of every list
+		// starts[k] = index in links of the first packing of the list after the k-th item packed
+		int[] links = new int[16];
+		int[] items = new int[N];
+		int[] starts = new int[N + 1];
+		int stateCount = 1;
+		int itemCount = 0;
+
+		for (int n = 0; n < N; n++) {
+
+			//items without profit or too heavy to fit are never taken
+			double profit = profits[n];
+			int weight = weights[n];
+			if (!(profit > 0) || weight > capacity) continue;
+
+			if (nextWeights.length < size << 1) {
+				nextWeights = new long[size << 1];
+				nextProfits = new double[size << 1];
+			}
+			if (links.length < stateCount + (size << 1)) {
+				if ((long) stateCount + (size << 1) > MAX_STATES) throw new IllegalArgumentException("too many undominated packings to keep");
+				links = Arrays.copyOf(links, (int) Math.min(MAX_STATES, Math.max((long) links.length << 1, stateCount + (size << 1))));
+			}
+
+			int base = starts[itemCount];
+			int nextSize = 0;
+			int i = 0;// packing without the item
+			int j = 0;// packing with the item
+			while (i < size || (j < size && listWeights[j] + weight <= capacity)) {
+
+				//take the lighter of the two candidates, or the more profitable one if they weigh the same
+				boolean withItem = j < size && listWeights[j] + weight <= capacity
+						&& (i == size || listWeights[j] + weight < listWeights[i]
+						|| (listWeights[j] + weight == listWeights[i] && listProfits[j] + profit > listProfits[i]));
+				long candidateWeight;
+				double candidateProfit;
+				int link;
+				if (withItem) {
+					candidateWeight = listWeights[j] + weight;
+					candidateProfit = listProfits[j] + profit;
+					link = ((base + j) << 1) | 1;
+					j++;
+				} else {
+					candidateWeight = listWeights[i];
+					candidateProfit = listProfits[i];
+					link = (base + i) << 1;
+					i++;
+				}
+
+				//a packing is kept only if it is more profitable than every lighter one
+				if (nextSize == 0 || candidateProfit > nextProfits[nextSize - 1]) {
+					nextWeights[nextSize] = candidateWeight;
+					nextProfits[nextSize] = candidateProfit;
+					links[stateCount + nextSize] = link;
+					nextSize++;
+				}
+			}
+
+			long[] swapWeights = listWeights;
+			listWeights = nextWeights;
+			nextWeights = swapWeights;
+			double[] swapProfits = listProfits;
+			listProfits = nextProfits;
+			nextProfits = swapProfits;
+			size = nextSize;
+
+			items[itemCount++] = n;
+			starts[itemCount] = stateCount;
+			stateCount += nextSize;
+
+		}
+
+		// determine which items to take, from the heaviest and so most profitable packing of the last list
+		for (int k = itemCount, s = starts[itemCount] + size - 1; k > 0; k--) {
+			int link = links[s];
+			if ((link & 1) != 0) take[items[k - 1]] = true;
+			s = link >>> 1;
+		}
+		return take;
+
+	}
+
+}
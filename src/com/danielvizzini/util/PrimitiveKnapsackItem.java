@@ -0,0 +1,19 @@
+package com.danielvizzini.util;
+
+/**
+ * KnapsackItem that also exposes its profit and weight as primitives, so that packing never boxes them.<br/>
+ * profit() and weight() must return the same values as getProfit() and getWeight().
+ */
+public interface PrimitiveKnapsackItem extends KnapsackItem {
+
+	/**
+	 * @return the profit of the knapsack item (e.g. the value of a jug of olive oil)
+	 */
+	public abstract double profit();
+
+	/**
+	 * @return the weight of the knapsack item (e.g. the weight of a jug of olive oil)
+	 */
+	public abstract int weight();
+
+}
@@ -0,0 +1,125 @@
+package com.danielvizzini.util;
+
+/**
+ * Dynamic program indexed by total profit that keeps the minimum weight needed to reach each profit.<br/>
+ * Memory is O(P) longs plus O(N*P) bits, where P is the total profit, so capacity can be as large as an int allows.
+ * Profits must be integral, or become integral when multiplied by a power of ten up to 10^MAX_SCALE_DIGITS.
+ */
+final class ProfitIndexedKnapsackEngine extends KnapsackEngine {
+
+	/**
+	 * Most decimal places that profits are scaled by to make them integral
+	 */
+	static final int MAX_SCALE_DIGITS = 6;
+
+	@Override
+	boolean[] solve(double[] profits, int[] weights, int capacity) {
+
+		if (profits.length != weights.length) throw new IllegalArgumentException("weights and profits arrays must be of equal length");
+
+		long[] scaledProfits = integralProfits(profits);
+		if (scaledProfits == null) {
+			throw new IllegalArgumentException("profits must be integral after scaling by at most 10^" + MAX_SCALE_DIGITS);
+		}
+		return solve(scaledProfits, weights, capacity);
+
+	}
+
+	/**
+	 * @param profits integral profits of the items, in the same order as weights
+	 * @param weights the weights, in the same units as capacity, of the items
+	 * @param capacity capacity of knapsack
+	 * @return a boolean array of this is true if the corresponding item should be taken and false otherwise
+	 */
+	static boolean[] solve(long[] profits, int[] weights, int capacity) {
+
+		int N = profits.length;   // number of items
+
+		//only items with profit that fit can be taken
+		long totalProfit = 0;
+		for (int n = 0; n < N; n++) {
+			if (profits[n] > 0 && weights[n] <= capacity) totalProfit += profits[n];
+		}
+		if (totalProfit >= Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("A total profit of " + totalProfit + " is too large to index by");
+		}
+		int P = (int) totalProfit;
+
+		// minWeight[p] = min weight of packing the items seen so far with profit exactly p
+		// sol(n, p) = does min weight solution to pack items 1..n with profit exactly p include item n?
+		long[] minWeight = new long[P + 1];
+		for (int p = 1; p <= P; p++) {
+			minWeight[p] = Long.MAX_VALUE;
+		}
+		DecisionBits sol = new DecisionBits(N, P + 1);
+
+		int reachable = 0;
+		for (int n = 0; n < N; n++) {
+			if (profits[n] <= 0 || weights[n] > capacity) continue;
+			int profit = (int) profits[n];
+			int weight = weights[n];
+			reachable += profit;
+
+			// walk down so that minWeight[p - profit] still holds the row of items 1..n-1
+			for (int p = reachable; p >= profit; p--) {
+				long before = minWeight[p - profit];
+				if (before != Long.MAX_VALUE && before + weight < minWeight[p]) {
+					minWeight[p] = before + weight;
+					sol.set(n, p);
+				}
+			}
+		}
+
+		//most profit whose min weight fits
+		int best = P;
+		while (minWeight[best] > capacity) best--;
+
+		// determine which items to take
+		boolean[] take = new boolean[N];
+		for (int n = N - 1, p = best; n >= 0; n--) {
+			if (profits[n] > 0 && weights[n] <= capacity && sol.get(n, p)) {
+				take[n] = true;
+				p -= (int) profits[n];
+			}
+		}
+
+		return take;
+
+	}
+
+	/**
+	 * Scales profits by the smallest power of ten that makes every positive profit integral.<br/>
+	 * Items without positive profit are never packed, so their scaled profit is 0.
+	 * @param profits profits of the items
+	 * @return the scaled profits, or null if no power of ten up to 10^MAX_SCALE_DIGITS makes them integral
+	 */
+	static long[] integralProfits(double[] profits) {
+
+		double scale = 1;
+		for (int digits = 0; digits <= MAX_SCALE_DIGITS; digits++, scale *= 10) {
+			long[] forReturn = scaleProfits(profits, scale);
+			if (forReturn != null) return forReturn;
+		}
+		return null;
+
+	}
+
+	/**
+	 * @return profits multiplied by scale, or null if one of them is not integral
+	 */
+	private static long[] scaleProfits(double[] profits, double scale) {
+
+		long[] forReturn = new long[profits.length];
+		long limit = Long.MAX_VALUE / Math.max(profits.length, 1);
+		for (int n = 0; n < profits.length; n++) {
+			if (!(profits[n] > 0)) continue;
+			double scaled = profits[n] * scale;
+			double rounded = Math.rint(scaled);
+			if (rounded < 1 || rounded >= limit || Math.abs(scaled - rounded) > 1e-9 * Math.max(1, scaled)) return null;
+			forReturn[n] = (long) rounded;
+		}
+		return forReturn;
+
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.danielvizzini.util;
+
+/**
+ * Dynamic program that keeps a single profit row and a bit-packed decision table.<br/>
+ * Takes the same items as TableKnapsackEngine with O(W) doubles plus O(N*W) bits, roughly 72 times less memory.
+ */
+final class RollingKnapsackEngine extends KnapsackEngine {
+
+	@Override
+	boolean[] solve(double[] profits, int[] weights, int capacity) {
+		return solve(profits, weights, capacity, null);
+	}
+
+	@Override
+	boolean[] solve(double[] profits, int[] weights, int capacity, KnapsackScratch scratch) {
+
+		int N = profits.length;   // number of items
+		if (N != weights.length) throw new IllegalArgumentException("weights and profits arrays must be of equal length");
+
+		//shrink columns by dividing by greatest common divisor
+		int gcd = weightDivisor(weights);
+		int W = capacity / gcd;
+
+		// opt[w] = max profit of packing the items seen so far with weight limit w * gcd
+		// sol(n, w) = does opt solution to pack items 1..n with weight limit w * gcd include item n?
+		double[] opt = scratch == null ? new double[W + 1] : scratch.row(W + 1);
+		DecisionBits sol = scratch == null ? new DecisionBits(N, W + 1) : scratch.bits(N, W + 1);
+		fill(profits, weights, gcd, W, opt, sol);
+
+		// determine which items to take
+		return reconstruct(weights, gcd, W, sol);
+
+	}
+
+	/**
+	 * Fills opt[0..W] with the max profit of packing all items at each weight limit w * gcd, recording decisions in sol
+	 * @param W capacity divided by gcd
+	 * @param opt a row whose first W + 1 columns are zeroed
+	 * @param sol a cleared decision table with a row per item and at least W + 1 columns
+	 */
+	static void fill(double[] profits, int[] weights, int gcd, int W, double[] opt, DecisionBits sol) {
+
+		for (int n = 0; n < profits.length; n++) {
+			KnapsackRowKernel.relax(opt, W, profits[n], weights[n] / gcd, sol, n);
+		}
+
+	}
+
+	/**
+	 * @param W weight limit, in multiples of gcd, to reconstruct the packing of
+	 * @return a boolean array of this is true if the corresponding item is in the packing filled into sol at weight limit W * gcd
+	 */
+	static boolean[] reconstruct(int[] weights, int gcd, int W, DecisionBits sol) {
+
+		boolean[] take = new boolean[weights.length];
+		for (int n = weights.length - 1, w = W; n >= 0; n--) {
+			if (sol.get(n, w)) {
+				take[n] = true;
+				w -= weights[n] / gcd;
+			}
+		}
+		return take;
+
+	}
+
+}
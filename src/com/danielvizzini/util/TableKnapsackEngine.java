@@ -0,0 +1,55 @@
+package com.danielvizzini.util;
+
+/**
+ * Textbook dynamic program that keeps the full profit and decision tables, O(N*W) doubles and booleans.<br/>
+ * Thank you Princeton: http://introcs.cs.princeton.edu/java/96optimization/Knapsack.java.html
+ */
+final class TableKnapsackEngine extends KnapsackEngine {
+
+	@Override
+	boolean[] solve(double[] profits, int[] weights, int W) {
+
+		int N = profits.length;   // number of items
+		if (N != weights.length) throw new IllegalArgumentException("weights and profits arrays must be of equal length");
+
+		// opt[n][w] = max profit of packing items 1..n with weight limit w
+		// sol[n][w] = does opt solution to pack items 1..n with weight limit w include item n?
+		double[][] opt = new double[N+1][W+1];
+		boolean[][] sol = new boolean[N+1][W+1];
+
+		//minimize iterations by dividing by greatest common divisor
+		int gcd = weightDivisor(weights);
+		W = gcd * (W / gcd);
+
+		for (int n = 1; n <= N; n++) {
+
+			//column 0 too, or weightless items are never taken
+			for (int w = 0; w <= W; w += gcd) {
+
+				// don't take item n
+				double option1 = opt[n-1][w];
+
+				// take item n
+				double option2 = Integer.MIN_VALUE;
+				if (weights[n-1] <= w) {
+					option2 = profits[n-1] + opt[n-1][w-weights[n-1]];
+				}
+
+				// select better of two options
+				opt[n][w] = Math.max(option1, option2);
+				sol[n][w] = (option2 > option1);
+			}
+		}
+
+		// determine which items to take
+		boolean[] take = new boolean[N];
+		for (int n = N, w = W; n > 0; n--) {
+			if (sol[n][w]) { take[n-1] = true;  w = w - weights[n-1]; }
+			else           { take[n-1] = false;                      }
+		}
+
+		return take;
+
+	}
+
+}
@@ -6,8 +6,11 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @SuppressWarnings("javadoc")
 @RunWith(Suite.class)
-@SuiteClasses({ DateUtilTest.class, FileUtilTest.class, InstantiationUtilTest.class, IterableUtilTest.class,
-		KnapsackTest.class, MiscUtilTest.class })
+@SuiteClasses({ BoundedKnapsackTest.class, DateUtilTest.class, DelimitedKnapsackFileTest.class, FileUtilTest.class,
+		IncrementalKnapsackTest.class, InstantiationUtilTest.class, IterableUtilTest.class, KnapsackBatchTest.class,
+		KnapsackCacheTest.class, KnapsackCurveTest.class, KnapsackPartitionsTest.class, KnapsackReductionTest.class,
+		KnapsackSolverTest.class, KnapsackTest.class, MiscUtilTest.class, MultidimensionalKnapsackTest.class,
+		MultipleKnapsackTest.class, OnlineKnapsackTest.class })
 public class AllTests {
 
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.danielvizzini.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class BoundedKnapsackTest {
+
+	@Test
+	public void testBounded() {
+		Pallet oil = new Pallet(10.0, 4, 2);
+		Pallet vinegar = new Pallet(3.0, 1, 3);
+		Furniture couch = new Furniture(4);
+		ArrayList<KnapsackItem> items = new ArrayList<KnapsackItem>(Arrays.asList(oil, vinegar, couch));
+		BoundedKnapsack<KnapsackItem> knapsack = new BoundedKnapsack<KnapsackItem>(items, 11);
+		assertEquals(knapsack.get(oil), Integer.valueOf(2));
+		assertEquals(knapsack.get(vinegar), Integer.valueOf(3));
+		assertEquals(knapsack.get(couch), null);
+		assertEquals(knapsack.getTotalWeight(), Integer.valueOf(11));
+		assertEquals(knapsack.getTotalProfit(), Double.valueOf(29));
+		assertEquals(items.size(), 3);
+	}
+
+	@Test
+	public void testEqualItems() {
+		Pallet oil = new Pallet(10.0, 4, 2);
+		Pallet vinegar = new Pallet(3.0, 1, 3);
+		ArrayList<Pallet> pallets = new ArrayList<Pallet>(Arrays.asList(oil, vinegar, oil));
+		BoundedKnapsack<Pallet> knapsack = new BoundedKnapsack<Pallet>(pallets, 17);
+		assertEquals(knapsack.get(oil), Integer.valueOf(4));
+		assertEquals(knapsack.get(vinegar), Integer.valueOf(1));
+		assertEquals(knapsack.getTotalWeight(), Integer.valueOf(17));
+		assertEquals(knapsack.getTotalProfit(), Double.valueOf(43));
+		int weight = 0;
+		for (Pallet pallet : knapsack.keySet()) {
+			weight += knapsack.get(pallet) * pallet.getWeight();
+		}
+		assertEquals(knapsack.getTotalWeight(), Integer.valueOf(weight));
+	}
+
+	@Test
+	public void testBoundedMatchesExpanded() {
+		Random random = new Random(10);
+		for (int trial = 0; trial < 30; trial++) {
+			ArrayList<Pallet> pallets = new ArrayList<Pallet>();
+			ArrayList<Jug> expanded = new ArrayList<Jug>();
+			for (int n = random.nextInt(8); n > 0; n--) {
+				Pallet pallet = new Pallet(random.nextInt(50), random.nextInt(20) + 1, random.nextInt(10));
+				pallets.add(pallet);
+				for (int copy = 0; copy < pallet.getQuantity(); copy++) {
+					expanded.add(new Jug(pallet.getProfit(), pallet.getWeight()));
+				}
+			}
+			int capacity = random.nextInt(150);
+			BoundedKnapsack<Pallet> knapsack = new BoundedKnapsack<Pallet>(pallets, capacity);
+			assertEquals(knapsack.getTotalProfit(), Jug.totalProfit(new Knapsack<Jug>(expanded, capacity, true, KnapsackStrategy.TABLE)), 1e-9);
+			assertEquals(knapsack.getProfitUpperBound(), knapsack.getTotalProfit());
+			assertTrue(knapsack.getTotalWeight() <= capacity);
+			for (Pallet pallet : knapsack.keySet()) {
+				assertTrue(knapsack.get(pallet) <= pallet.getQuantity());
+			}
+		}
+	}
+
+	@Test
+	public void testTruncatedInstanceBound() {
+		ArrayList<Jug> jugs = KnapsackTest.correlatedJugs(new Random(30), 400);
+		BoundedKnapsack<Jug> knapsack = new BoundedKnapsack<Jug>(jugs, 100000000);
+		assertTrue(knapsack.getTotalWeight() <= 100000000);
+		assertTrue(knapsack.getProfitUpperBound() > knapsack.getTotalProfit());
+		assertEquals(knapsack.getProfitUpperBound(), new Knapsack<Jug>(jugs, 100000000, true).getProfitUpperBound(), 1e-9);
+	}
+
+	@Test
+	public void testUnboundedMatchesExpanded() {
+		Random random = new Random(11);
+		for (int trial = 0; trial < 30; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, random.nextInt(6), 20);
+			int capacity = random.nextInt(100);
+			ArrayList<Jug> expanded = new ArrayList<Jug>();
+			for (Jug jug : jugs) {
+				for (int copy = 0; copy < capacity / jug.getWeight(); copy++) {
+					expanded.add(jug);
+				}
+			}
+			BoundedKnapsack<Jug> knapsack = new BoundedKnapsack<Jug>(jugs, capacity, true);
+			assertEquals(knapsack.getTotalProfit(), Jug.totalProfit(new Knapsack<Jug>(expanded, capacity, true, KnapsackStrategy.TABLE)), 1e-9);
+			assertEquals(knapsack.getProfitUpperBound(), knapsack.getTotalProfit());
+			assertTrue(knapsack.getTotalWeight() <= capacity);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnboundedWeightless() {
+		new BoundedKnapsack<Jug>(new ArrayList<Jug>(Arrays.asList(new Jug(1.0, 0))), 10, true);
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.danielvizzini.util;
+
+class Crate implements MultidimensionalKnapsackItem {
+	
+	private double price;
+	private int[] resources;
+
+	public Double getProfit() {
+		return this.price;
+	}
+	
+	public int[] getResources() {
+		return this.resources;
+	}
+	
+	Crate(double price, int... resources) {
+		this.price = price;
+		this.resources = resources;
+	}
+	
+}
@@ -0,0 +1,113 @@
+package com.danielvizzini.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class DelimitedKnapsackFileTest {
+
+	private static DelimitedKnapsackFile parse(String text, char delimiter, int weightColumn, int profitColumn, boolean header) throws IOException {
+		return new DelimitedKnapsackFile(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)), delimiter, weightColumn, profitColumn, header);
+	}
+
+	@Test
+	public void testColumns() throws IOException {
+		String text = "name,weight,price\r\n\"couch, green\",4,120.5\r\n\r\nlamp, 2 ,\"7\"\r\nend table,2,-1.25e1";
+		DelimitedKnapsackFile file = parse(text, ',', 1, 2, true);
+		assertEquals(file.size(), 3);
+		assertEquals(file.getWeight(0), 4);
+		assertEquals(file.getProfit(0), 120.5, 0);
+		assertEquals(file.getWeight(1), 2);
+		assertEquals(file.getProfit(1), 7, 0);
+		assertEquals(file.getProfit(2), -12.5, 0);
+		assertEquals(file.getOffset(0), text.indexOf("\"couch"));
+		assertEquals(file.getOffset(1), text.indexOf("lamp"));
+		assertEquals(file.getOffset(2), text.indexOf("end table"));
+	}
+
+	@Test
+	public void testParseProfit() {
+		Random random = new Random(24);
+		for (int trial = 0; trial < 10000; trial++) {
+			String text;
+			switch (trial % 3) {
+			case 0:
+				text = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(20) - 10));
+				break;
+			case 1:
+				text = (random.nextBoolean() ? "-" : "") + random.nextInt(1000000) + "." + (random.nextLong() & Long.MAX_VALUE);
+				break;
+			default:
+				text = random.nextInt(100000) + "." + random.nextInt(100);
+			}
+			byte[] field = text.getBytes(StandardCharsets.US_ASCII);
+			assertEquals(Double.valueOf(DelimitedKnapsackFile.parseProfit(field, field.length, 0)), Double.valueOf(text));
+		}
+	}
+
+	@Test
+	public void testMatchesKnapsack() throws IOException {
+		Random random = new Random(42);
+		ArrayList<Jug> jugs = Jug.randomJugs(random, 200, 60);
+		File csv = File.createTempFile("jugs", ".csv");
+		try {
+			FileOutputStream out = new FileOutputStream(csv);
+			try {
+				out.write("weight\tprice\n".getBytes(StandardCharsets.US_ASCII));
+				for (Jug jug : jugs) {
+					out.write((jug.getWeight() + "\t" + jug.getProfit() + "\n").getBytes(StandardCharsets.US_ASCII));
+				}
+			} finally {
+				out.close();
+			}
+
+			DelimitedKnapsackFile file = new DelimitedKnapsackFile(csv, '\t', 0, 1, true);
+			assertEquals(file.size(), jugs.size());
+			KnapsackSolution solution = file.solve(new KnapsackSolver(), 500);
+			assertEquals(solution.getTotalProfit(), Jug.totalProfit(new Knapsack<Jug>(jugs, 500, true)), 1e-9);
+
+			//every offset points at the row of a jug packed
+			long[] offsets = file.getOffsets(solution);
+			assertEquals(offsets.length, solution.size());
+			RandomAccessFile rows = new RandomAccessFile(csv, "r");
+			try {
+				for (int i = 0; i < offsets.length; i++) {
+					rows.seek(offsets[i]);
+					Jug jug = jugs.get(solution.getIndex(i));
+					assertEquals(rows.readLine(), jug.getWeight() + "\t" + jug.getProfit());
+				}
+			} finally {
+				rows.close();
+			}
+		} finally {
+			assertTrue(csv.delete());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingColumn() throws IOException {
+		parse("4,2\n3\n", ',', 0, 1, false);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeWeight() throws IOException {
+		parse("-4,2\n", ',', 0, 1, false);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotANumber() throws IOException {
+		parse("4,two\n", ',', 0, 1, false);
+	}
+
+}
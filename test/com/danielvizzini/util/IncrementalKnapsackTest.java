@@ -0,0 +1,65 @@
+package com.danielvizzini.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class IncrementalKnapsackTest {
+
+	@Test
+	public void testAddRemoveSet() {
+		Furniture couch = new Furniture(4);
+		Furniture table = new Furniture(3);
+		Furniture dresser = new Furniture(3);
+		IncrementalKnapsack<Furniture> knapsack = new IncrementalKnapsack<Furniture>(6, Arrays.asList(couch, table));
+		assertEquals(knapsack.getTotalProfit(), Double.valueOf(4));
+		knapsack.add(dresser);
+		assertEquals(knapsack.getTotalProfit(), Double.valueOf(6));
+		assertTrue(knapsack.getKnapsack().contains(table));
+		assertTrue(knapsack.getKnapsack().contains(dresser));
+		assertEquals(knapsack.remove(1), table);
+		assertEquals(knapsack.getTotalProfit(), Double.valueOf(4));
+		assertEquals(knapsack.set(0, table), couch);
+		assertEquals(knapsack.getKnapsack().getTotalWeight(), Integer.valueOf(6));
+		assertEquals(knapsack.size(), 2);
+	}
+
+	@Test
+	public void testMatchesRepacking() {
+		Random random = new Random(12);
+		int capacity = 150;
+		IncrementalKnapsack<Jug> knapsack = new IncrementalKnapsack<Jug>(capacity);
+		ArrayList<Jug> jugs = new ArrayList<Jug>();
+		for (int tick = 0; tick < 400; tick++) {
+			int change = random.nextInt(4);
+			if (change == 0 && jugs.size() > 0) {
+				int index = jugs.size() - 1 - random.nextInt(Math.min(jugs.size(), 80));
+				jugs.remove(index);
+				knapsack.remove(index);
+			} else if (change == 1 && jugs.size() > 0) {
+				int index = random.nextInt(jugs.size());
+				Jug jug = Jug.randomJugs(random, 1, 40).get(0);
+				jugs.set(index, jug);
+				knapsack.set(index, jug);
+			} else {
+				Jug jug = Jug.randomJugs(random, 1, 40).get(0);
+				jugs.add(jug);
+				knapsack.add(jug);
+			}
+			if (tick % 7 == 0) {
+				double optimal = Jug.totalProfit(new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.ROLLING));
+				assertEquals(knapsack.getTotalProfit(), optimal, 1e-9);
+				Knapsack<Jug> packing = knapsack.getKnapsack();
+				assertEquals(packing.getTotalProfit(), optimal, 1e-9);
+				assertTrue(packing.getTotalWeight() <= capacity);
+			}
+		}
+	}
+
+}
@@ -3,10 +3,14 @@ package com.danielvizzini.util;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -233,4 +237,57 @@ public class IterableUtilTest {
 		assertEquals(testLinkedList, new LinkedList<String>());
 
 	}
+
+	@Test
+	public void testRemoveIndicesArray() {
+
+		ArrayList<String> testArrayList = new ArrayList<String>(arrayList);
+		IterableUtil.removeIndices(testArrayList, new int[]{1, 3});
+		assertEquals(testArrayList, new ArrayList<String>(Arrays.asList("a","c")));
+
+		testArrayList = new ArrayList<String>(arrayList);
+		IterableUtil.removeIndices(testArrayList, new int[]{-1, 0, 0, 4});
+		assertEquals(testArrayList, new ArrayList<String>(Arrays.asList("b","c","d")));
+
+		LinkedList<String> testLinkedList = new LinkedList<String>(arrayList);
+		IterableUtil.removeIndices(testLinkedList, new int[]{0, 2});
+		assertEquals(testLinkedList, new LinkedList<String>(Arrays.asList("b","d")));
+
+	}
+
+	@Test
+	public void testRemoveIndicesFixedSize() {
+		List<String> fixedSize = Arrays.asList("a", "b", "c");
+		try {
+			IterableUtil.removeIndices(fixedSize, new int[]{0});
+			fail("a fixed-size list cannot shrink");
+		} catch (UnsupportedOperationException e) {
+			assertEquals(fixedSize, Arrays.asList("a", "b", "c"));
+		}
+	}
+
+	@Test
+	public void testRemoveIndicesMatchesRemove() {
+		Random random = new Random(25);
+		for (int trial = 0; trial < 100; trial++) {
+			int size = random.nextInt(200);
+			ArrayList<Integer> expected = new ArrayList<Integer>();
+			for (int i = 0; i < size; i++) {
+				expected.add(i);
+			}
+			ArrayList<Integer> testArrayList = new ArrayList<Integer>(expected);
+			LinkedList<Integer> testLinkedList = new LinkedList<Integer>(expected);
+			BitSet toBeRemoved = new BitSet();
+			for (int i = size + 10; i >= 0; i--) {
+				if (random.nextInt(3) == 0) {
+					toBeRemoved.set(i);
+					if (i < size) expected.remove(i);
+				}
+			}
+			IterableUtil.removeIndices(testArrayList, toBeRemoved);
+			IterableUtil.removeIndices(testLinkedList, toBeRemoved);
+			assertEquals(testArrayList, expected);
+			assertEquals(testLinkedList, expected);
+		}
+	}
 }
\ No newline at end of file
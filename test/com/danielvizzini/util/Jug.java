@@ -0,0 +1,48 @@
+package com.danielvizzini.util;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+class Jug implements PrimitiveKnapsackItem {
+	
+	private double price;
+	private int weight;
+
+	public Integer getWeight() {
+		return this.weight;
+	}
+	
+	public Double getProfit() {
+		return this.price;
+	}
+	
+	public int weight() {
+		return this.weight;
+	}
+	
+	public double profit() {
+		return this.price;
+	}
+	
+	Jug(double price, int weight) {
+		this.price = price;
+		this.weight = weight;
+	}
+	
+	static ArrayList<Jug> randomJugs(Random random, int count, int maxWeight) {
+		ArrayList<Jug> jugs = new ArrayList<Jug>();
+		for (int i = 0; i < count; i++) {
+			jugs.add(new Jug(random.nextInt(100) + random.nextInt(4) * 0.25, random.nextInt(maxWeight) + 1));
+		}
+		return jugs;
+	}
+	
+	static double totalProfit(Iterable<? extends KnapsackItem> knapsackItems) {
+		double forReturn = 0;
+		for (KnapsackItem knapsackItem : knapsackItems) {
+			forReturn += knapsackItem.getProfit();
+		}
+		return forReturn;
+	}
+	
+}
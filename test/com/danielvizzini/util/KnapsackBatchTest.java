@@ -0,0 +1,113 @@
+package com.danielvizzini.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class KnapsackBatchTest {
+
+	@Test
+	public void testMatchesKnapsack() throws Exception {
+		Random random = new Random(17);
+		KnapsackBatch<Jug> batch = new KnapsackBatch<Jug>();
+		ArrayList<ArrayList<Jug>> instances = new ArrayList<ArrayList<Jug>>();
+		ArrayList<Integer> capacities = new ArrayList<Integer>();
+		for (int i = 0; i < 200; i++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, random.nextInt(30), 50);
+			int capacity = random.nextInt(300);
+			assertEquals(batch.add(jugs, capacity), i);
+			instances.add(jugs);
+			capacities.add(capacity);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Knapsack<Jug>> knapsacks = batch.solve(executor);
+			assertEquals(knapsacks.size(), 200);
+			for (int i = 0; i < 200; i++) {
+				double optimal = Jug.totalProfit(new Knapsack<Jug>(instances.get(i), capacities.get(i), true, KnapsackStrategy.TABLE));
+				assertEquals(knapsacks.get(i).getTotalProfit(), optimal, 1e-9);
+				assertTrue(knapsacks.get(i).getTotalWeight() <= capacities.get(i));
+				assertTrue(instances.get(i).containsAll(knapsacks.get(i)));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testSubmit() throws Exception {
+		Furniture couch = new Furniture(4);
+		Furniture endTable = new Furniture(2);
+		Furniture lamp = new Furniture(2);
+		ArrayList<Furniture> packingList = new ArrayList<Furniture>();
+		packingList.add(couch);
+		packingList.add(endTable);
+		packingList.add(lamp);
+
+		KnapsackBatch<Furniture> batch = new KnapsackBatch<Furniture>();
+		batch.add(packingList, 4);
+		batch.add(packingList, 6);
+		batch.add(packingList, 1);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			List<Future<Knapsack<Furniture>>> futures = batch.submit(executor);
+			assertEquals(futures.get(0).get().getTotalWeight(), Integer.valueOf(4));
+			assertEquals(futures.get(1).get().getTotalWeight(), Integer.valueOf(6));
+			assertEquals(futures.get(2).get().size(), 0);
+			assertEquals(packingList.size(), 3);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testSolveOnThreads() throws Exception {
+		Random random = new Random(5);
+		KnapsackBatch<Jug> batch = new KnapsackBatch<Jug>();
+		ArrayList<Jug> jugs = Jug.randomJugs(random, 20, 40);
+		for (int capacity = 0; capacity < 100; capacity += 10) {
+			batch.add(jugs, capacity);
+		}
+		List<Knapsack<Jug>> knapsacks = batch.solve(3);
+		for (int i = 0; i < knapsacks.size(); i++) {
+			assertEquals(knapsacks.get(i).getTotalProfit(), new Knapsack<Jug>(jugs, i * 10, true).getTotalProfit(), 1e-9);
+		}
+	}
+
+	@Test
+	public void testTruncatedInstanceBound() throws Exception {
+		ArrayList<Jug> correlated = KnapsackTest.correlatedJugs(new Random(30), 400);
+		ArrayList<Jug> small = Jug.randomJugs(new Random(6), 20, 40);
+		KnapsackBatch<Jug> batch = new KnapsackBatch<Jug>();
+		batch.add(correlated, 100000000);
+		batch.add(small, 50);
+		batch.add(correlated, 100000000);
+		List<Knapsack<Jug>> knapsacks = batch.solve(3);
+		double bound = new Knapsack<Jug>(correlated, 100000000, true).getProfitUpperBound();
+		assertTrue(knapsacks.get(0).getProfitUpperBound() > knapsacks.get(0).getTotalProfit());
+		assertEquals(knapsacks.get(0).getProfitUpperBound(), bound, 1e-9);
+		assertEquals(knapsacks.get(1).getProfitUpperBound(), knapsacks.get(1).getTotalProfit());
+		assertEquals(knapsacks.get(2).getProfitUpperBound(), bound, 1e-9);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFailingInstance() throws Exception {
+		ArrayList<Furniture> packingList = new ArrayList<Furniture>();
+		packingList.add(new Furniture(-1));
+		KnapsackBatch<Furniture> batch = new KnapsackBatch<Furniture>();
+		batch.add(packingList, 4);
+		batch.solve(2);
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.danielvizzini.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class KnapsackCacheTest {
+
+	@Test
+	public void testHitsAndMisses() {
+		KnapsackCache<Furniture> cache = new KnapsackCache<Furniture>(10);
+		ArrayList<Furniture> packingList = new ArrayList<Furniture>(Arrays.asList(new Furniture(4), new Furniture(2), new Furniture(2)));
+		ArrayList<Furniture> samePackingList = new ArrayList<Furniture>(Arrays.asList(new Furniture(4), new Furniture(2), new Furniture(2)));
+
+		Knapsack<Furniture> first = cache.pack(packingList, 6);
+		Knapsack<Furniture> second = cache.pack(samePackingList, 6);
+		cache.pack(packingList, 5);
+
+		assertEquals(first.getTotalWeight(), Integer.valueOf(6));
+		assertEquals(second.getTotalWeight(), Integer.valueOf(6));
+		assertTrue(samePackingList.containsAll(second));
+		assertEquals(cache.getHitCount(), 1);
+		assertEquals(cache.getMissCount(), 2);
+		assertEquals(cache.size(), 2);
+		assertEquals(packingList.size(), 3);
+	}
+
+	@Test
+	public void testTruncatedInstanceBound() {
+		KnapsackCache<Jug> cache = new KnapsackCache<Jug>(10);
+		ArrayList<Jug> jugs = KnapsackTest.correlatedJugs(new Random(30), 400);
+		Knapsack<Jug> miss = cache.pack(jugs, 100000000);
+		Knapsack<Jug> hit = cache.pack(jugs, 100000000);
+		double bound = new Knapsack<Jug>(jugs, 100000000, true).getProfitUpperBound();
+		assertEquals(cache.getHitCount(), 1);
+		assertTrue(miss.getProfitUpperBound() > miss.getTotalProfit());
+		assertEquals(miss.getProfitUpperBound(), bound, 1e-9);
+		assertEquals(hit.getProfitUpperBound(), bound, 1e-9);
+	}
+
+	@Test
+	public void testEviction() {
+		KnapsackCache<Furniture> cache = new KnapsackCache<Furniture>(2);
+		ArrayList<Furniture> packingList = new ArrayList<Furniture>(Arrays.asList(new Furniture(4), new Furniture(2), new Furniture(2)));
+		cache.pack(packingList, 4);
+		cache.pack(packingList, 6);
+		cache.pack(packingList, 4);
+		cache.pack(packingList, 8);
+		assertEquals(cache.size(), 2);
+		cache.pack(packingList, 4);
+		assertEquals(cache.getHitCount(), 2);
+		cache.pack(packingList, 6);
+		assertEquals(cache.getMissCount(), 4);
+		cache.clear();
+		assertEquals(cache.size(), 0);
+	}
+
+	@Test
+	public void testMatchesKnapsack() {
+		Random random = new Random(21);
+		KnapsackCache<Jug> cache = new KnapsackCache<Jug>(5);
+		ArrayList<ArrayList<Jug>> catalogues = new ArrayList<ArrayList<Jug>>();
+		for (int i = 0; i < 3; i++) {
+			catalogues.add(Jug.randomJugs(random, 25, 40));
+		}
+		for (int trial = 0; trial < 60; trial++) {
+			ArrayList<Jug> jugs = catalogues.get(random.nextInt(3));
+			int capacity = 100 + random.nextInt(3);
+			Knapsack<Jug> cached = cache.pack(jugs, capacity);
+			assertEquals(cached.getTotalProfit(), new Knapsack<Jug>(jugs, capacity, true).getTotalProfit(), 1e-9);
+			assertTrue(cached.getTotalWeight() <= capacity);
+		}
+		assertEquals(cache.getHitCount() + cache.getMissCount(), 60);
+		assertTrue(cache.getHitCount() > 0);
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.danielvizzini.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class KnapsackCurveTest {
+
+	@Test
+	public void testCurve() {
+		Furniture couch = new Furniture(4);
+		Furniture endTable = new Furniture(2);
+		Furniture lamp = new Furniture(2);
+		ArrayList<Furniture> packingList = new ArrayList<Furniture>(Arrays.asList(couch, endTable, lamp));
+		KnapsackCurve<Furniture> curve = new KnapsackCurve<Furniture>(packingList, 9);
+		assertTrue(Arrays.equals(curve.getProfits(), new double[]{0, 0, 2, 2, 4, 4, 6, 6, 8, 8}));
+		assertEquals(curve.getProfit(7), 6, 0);
+		assertTrue(curve.getKnapsack(6).contains(couch));
+		assertEquals(curve.getKnapsack(6).getTotalWeight(), Integer.valueOf(6));
+		assertEquals(curve.getKnapsack(1).size(), 0);
+		assertEquals(packingList.size(), 3);
+	}
+
+	@Test
+	public void testMatchesKnapsack() {
+		Random random = new Random(13);
+		for (int trial = 0; trial < 10; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, random.nextInt(25), 40);
+			int maxCapacity = random.nextInt(200);
+			KnapsackCurve<Jug> curve = new KnapsackCurve<Jug>(jugs, maxCapacity);
+			double[] profits = curve.getProfits();
+			for (int capacity = 0; capacity <= maxCapacity; capacity += 7) {
+				double optimal = Jug.totalProfit(new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.TABLE));
+				assertEquals(profits[capacity], optimal, 1e-9);
+				Knapsack<Jug> knapsack = curve.getKnapsack(capacity);
+				assertEquals(knapsack.getTotalProfit(), optimal, 1e-9);
+				assertTrue(knapsack.getTotalWeight() <= capacity);
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBeyondMaxCapacity() {
+		new KnapsackCurve<Furniture>(new ArrayList<Furniture>(), 10).getProfit(11);
+	}
+
+}
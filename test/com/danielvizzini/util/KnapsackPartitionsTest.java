@@ -0,0 +1,97 @@
+package com.danielvizzini.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class KnapsackPartitionsTest {
+
+	@Test
+	public void testMerge() {
+		double[] merged = KnapsackPartitions.merge(new double[]{0, 0, 2, 2, 4}, new double[]{0, 3, 3}, 6);
+		assertTrue(Arrays.equals(merged, new double[]{0, 3, 3, 5, 5, 7, 7}));
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		double[] profits = {0, 1.5, 2.25, 7};
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		KnapsackPartitions.writeProfits(profits, new DataOutputStream(bytes));
+		double[] read = KnapsackPartitions.readProfits(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		assertTrue(Arrays.equals(read, profits));
+	}
+
+	@Test(expected = StreamCorruptedException.class)
+	public void testNotAProfitRow() throws IOException {
+		KnapsackPartitions.readProfits(new DataInputStream(new ByteArrayInputStream(new byte[8])));
+	}
+
+	@Test
+	public void testMatchesKnapsack() throws IOException {
+		Random random = new Random(23);
+		for (int trial = 0; trial < 10; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, random.nextInt(40), 40);
+			int capacity = random.nextInt(200);
+
+			//deal the jugs into partitions, each shipping its row as bytes
+			int K = 1 + random.nextInt(4);
+			List<ArrayList<Jug>> partitions = new ArrayList<ArrayList<Jug>>();
+			for (int k = 0; k < K; k++) {
+				partitions.add(new ArrayList<Jug>());
+			}
+			for (Jug jug : jugs) {
+				partitions.get(random.nextInt(K)).add(jug);
+			}
+			List<KnapsackCurve<Jug>> curves = new ArrayList<KnapsackCurve<Jug>>();
+			List<double[]> rows = new ArrayList<double[]>();
+			for (ArrayList<Jug> partition : partitions) {
+				KnapsackCurve<Jug> curve = new KnapsackCurve<Jug>(partition, capacity);
+				curves.add(curve);
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				KnapsackPartitions.writeProfits(curve.getProfits(), new DataOutputStream(bytes));
+				rows.add(KnapsackPartitions.readProfits(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+			}
+
+			double optimal = Jug.totalProfit(new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.TABLE));
+			double[] merged = rows.get(0);
+			for (int k = 1; k < K; k++) {
+				merged = KnapsackPartitions.merge(merged, rows.get(k), capacity);
+			}
+			assertEquals(merged[capacity], optimal, 1e-9);
+
+			//each partition reconstructs its own jugs at the capacity it was given
+			int[] split = KnapsackPartitions.allocate(rows, capacity);
+			int totalWeight = 0;
+			double totalProfit = 0;
+			for (int k = 0; k < K; k++) {
+				Knapsack<Jug> knapsack = curves.get(k).getKnapsack(split[k]);
+				assertTrue(knapsack.getTotalWeight() <= split[k]);
+				totalWeight += knapsack.getTotalWeight();
+				totalProfit += knapsack.getTotalProfit();
+			}
+			assertTrue(totalWeight <= capacity);
+			assertEquals(totalProfit, optimal, 1e-9);
+		}
+	}
+
+	@Test
+	public void testShortRows() {
+		int[] split = KnapsackPartitions.allocate(Arrays.asList(new double[]{0, 5}, new double[]{0, 0, 4}), 10);
+		assertEquals(split[0] + split[1], 3);
+		assertEquals(split[0], 1);
+	}
+
+}
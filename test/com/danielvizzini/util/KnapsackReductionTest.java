@@ -0,0 +1,78 @@
+package com.danielvizzini.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class KnapsackReductionTest {
+
+	@Test
+	public void testReduction() {
+		ArrayList<Jug> jugs = new ArrayList<Jug>(Arrays.asList(
+				new Jug(50, 20),// heavier than capacity
+				new Jug(0, 1),// no profit
+				new Jug(5, 0),// weightless
+				new Jug(30, 5),
+				new Jug(20, 6),// dominated by the first two
+				new Jug(10, 6),// dominated by the first three
+				new Jug(30, 5)));
+		KnapsackReduction reduction = new KnapsackReduction(jugs, 10);
+		assertEquals(reduction.getItemCount(), 7);
+		assertEquals(reduction.getOversizedCount(), 2);
+		assertEquals(reduction.getDominatedCount(), 2);
+		assertEquals(reduction.getFixedInCount(), 3);
+		assertEquals(reduction.getReducedItemCount(), 0);
+		assertEquals(reduction.getReducedCapacity(), 0);
+		assertEquals(Jug.totalProfit(new Knapsack<Jug>(jugs, 10, true)), 65, 0);
+	}
+
+	@Test
+	public void testReducedMatchesTable() {
+		Random random = new Random(22);
+		for (int trial = 0; trial < 200; trial++) {
+			ArrayList<Jug> jugs = new ArrayList<Jug>();
+			for (int n = random.nextInt(40); n > 0; n--) {
+				int weight = random.nextInt(30);
+				double profit = trial % 2 == 0 ? random.nextInt(60) : weight + random.nextInt(5);
+				jugs.add(new Jug(profit, weight));
+			}
+			int capacity = random.nextInt(150);
+
+			KnapsackColumns columns = KnapsackColumns.of(jugs);
+			KnapsackReduction reduction = new KnapsackReduction(columns.profits, columns.weights, capacity);
+			assertTrue(reduction.getReducedCapacity() <= capacity);
+			boolean[] reducedTake = KnapsackStrategy.TABLE.getEngine().solve(reduction.reducedProfits(columns.profits),
+					reduction.reducedWeights(columns.weights), reduction.getReducedCapacity());
+			boolean[] take = reduction.expand(reducedTake);
+
+			double profit = 0;
+			long weight = 0;
+			for (int n = 0; n < take.length; n++) {
+				if (take[n]) {
+					profit += columns.profits[n];
+					weight += columns.weights[n];
+				}
+			}
+			assertTrue(weight <= capacity);
+			assertEquals(profit, Jug.totalProfit(new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.TABLE)), 1e-9);
+		}
+	}
+
+	@Test
+	public void testShrinks() {
+		Random random = new Random(23);
+		ArrayList<Jug> jugs = Jug.randomJugs(random, 2000, 1000);
+		KnapsackReduction reduction = new KnapsackReduction(jugs, 5000);
+		assertTrue(reduction.getReducedItemCount() < 1000);
+		assertEquals(reduction.getItemCount(), 2000);
+		assertEquals(reduction.getOversizedCount() + reduction.getDominatedCount() + reduction.getFixedInCount()
+				+ reduction.getFixedOutCount() + reduction.getReducedItemCount(), 2000);
+	}
+
+}
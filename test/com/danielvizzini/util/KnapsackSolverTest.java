@@ -0,0 +1,81 @@
+package com.danielvizzini.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class KnapsackSolverTest {
+
+	@Test
+	public void testSolution() {
+		KnapsackSolver solver = new KnapsackSolver();
+		KnapsackSolution solution = solver.solve(new double[]{4, 2, 2, 5}, new int[]{4, 2, 2, 6}, 6);
+		assertEquals(solution.getTotalProfit(), Double.valueOf(6));
+		assertEquals(solution.getTotalWeight(), Integer.valueOf(6));
+		assertEquals(solution.size(), 2);
+		assertTrue(solution.contains(0));
+		assertFalse(solution.contains(3));
+		assertTrue(solution.getIndex(0) < solution.getIndex(1));
+		int[] indices = solution.getIndices();
+		indices[0] = 3;
+		assertTrue(solution.contains(0));
+	}
+
+	@Test
+	public void testReuseMatchesKnapsack() {
+		Random random = new Random(30);
+		KnapsackSolver solver = new KnapsackSolver();
+		KnapsackSolver rollingSolver = new KnapsackSolver(KnapsackStrategy.ROLLING);
+		for (int trial = 0; trial < 50; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, random.nextInt(40), 60);
+			int capacity = random.nextInt(400);
+			double optimal = Jug.totalProfit(new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.TABLE));
+
+			KnapsackSolution solution = solver.solve(jugs, capacity);
+			assertEquals(solution.getTotalProfit(), optimal, 1e-9);
+			assertTrue(solution.getTotalWeight() <= capacity);
+			double profit = 0;
+			for (int index : solution.getIndices()) {
+				profit += jugs.get(index).getProfit();
+			}
+			assertEquals(profit, optimal, 1e-9);
+
+			assertEquals(rollingSolver.solve(jugs, capacity).getTotalProfit(), optimal, 1e-9);
+		}
+	}
+
+	@Test
+	public void testTruncatedInstanceBound() {
+		KnapsackSolver solver = new KnapsackSolver();
+		ArrayList<Jug> jugs = KnapsackTest.correlatedJugs(new Random(30), 400);
+		KnapsackSolution truncated = solver.solve(jugs, 100000000);
+		assertTrue(truncated.getProfitUpperBound() > truncated.getTotalProfit());
+		assertEquals(truncated.getProfitUpperBound(), new Knapsack<Jug>(jugs, 100000000, true).getProfitUpperBound(), 1e-9);
+
+		//the next solve on the same solver reports its own bound
+		KnapsackSolution exact = solver.solve(new double[]{3, 1, 4}, new int[]{2, 1, 3}, 4);
+		assertEquals(exact.getProfitUpperBound(), exact.getTotalProfit());
+	}
+
+	@Test
+	public void testArraysLeftUnchanged() {
+		double[] profits = {3, 1, 4, 1, 5};
+		int[] weights = {2, 7, 1, 8, 2};
+		new KnapsackSolver().solve(profits, weights, 5);
+		assertTrue(Arrays.equals(profits, new double[]{3, 1, 4, 1, 5}));
+		assertTrue(Arrays.equals(weights, new int[]{2, 7, 1, 8, 2}));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeWeight() {
+		new KnapsackSolver().solve(new double[]{1}, new int[]{-1}, 5);
+	}
+
+}
@@ -1,10 +1,15 @@
 package com.danielvizzini.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -23,6 +28,10 @@ public class KnapsackTest {
 	private static ArrayList<Furniture> packingListGcd = new ArrayList<Furniture>(Arrays.asList(couch, endTable, lamp));
 
 	private static Knapsack<Furniture> knapsack;
+
+	// strategies documented to take the same items as TABLE, not just an equally profitable packing
+	private static final EnumSet<KnapsackStrategy> SAME_ITEMS_AS_TABLE = EnumSet.of(KnapsackStrategy.TABLE, KnapsackStrategy.ROLLING,
+			KnapsackStrategy.PARALLEL, KnapsackStrategy.OFF_HEAP, KnapsackStrategy.MAPPED_FILE);
 	
 	@Test
 	public void testPackAndRemplenish() {
@@ -81,4 +90,328 @@ public class KnapsackTest {
 		assertTrue(packingListWithExcessiveItem.contains(couch));
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testProfitsDifferFromWeights() {
+		Jug oil = new Jug(10.0, 5);
+		Jug vinegar = new Jug(3.0, 3);
+		Jug wine = new Jug(4.0, 3);
+		ArrayList<Jug> jugs = new ArrayList<Jug>(Arrays.asList(oil, vinegar, wine));
+		for (KnapsackStrategy strategy : KnapsackStrategy.values()) {
+			Knapsack<Jug> jugKnapsack = new Knapsack<Jug>(jugs, 6, true, strategy);
+			assertEquals(jugKnapsack.size(), 1);
+			assertTrue(jugKnapsack.contains(oil));
+			assertEquals(jugKnapsack.getTotalWeight(), Integer.valueOf(5));
+		}
+	}
+
+	@Test
+	public void testTableStrategy() {
+		ArrayList<Furniture> furniture = new ArrayList<Furniture>(Arrays.asList(couch, endTable, lamp));
+		knapsack = new Knapsack<Furniture>(furniture, 6, true, KnapsackStrategy.TABLE);
+		assertTrue(knapsack.contains(couch));
+		assertTrue(knapsack.contains(endTable));
+		assertEquals(knapsack.getTotalWeight(), Integer.valueOf(6));
+		knapsack = new Knapsack<Furniture>(furniture, 4, false, KnapsackStrategy.TABLE);
+		assertTrue(knapsack.contains(couch));
+		assertEquals(furniture.size(), 2);
+	}
+
+	@Test
+	public void testStrategiesMatchTable() {
+		Random random = new Random(1);
+		for (int trial = 0; trial < 50; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, random.nextInt(30), 40);
+			int capacity = random.nextInt(300);
+			Knapsack<Jug> table = new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.TABLE);
+			for (KnapsackStrategy strategy : KnapsackStrategy.values()) {
+				Knapsack<Jug> knapsack = new Knapsack<Jug>(jugs, capacity, true, strategy);
+				assertEquals(strategy.name(), Jug.totalProfit(knapsack), Jug.totalProfit(table), 1e-9);
+				assertTrue(strategy.name(), knapsack.getTotalWeight() <= capacity);
+				if (SAME_ITEMS_AS_TABLE.contains(strategy)) assertEquals(strategy.name(), knapsack, table);
+			}
+		}
+	}
+
+	@Test
+	public void testWeightlessItems() {
+		Jug free = new Jug(5.0, 0);
+		Jug oil = new Jug(10.0, 5);
+		Jug wine = new Jug(4.0, 3);
+		ArrayList<Jug> jugs = new ArrayList<Jug>(Arrays.asList(oil, free, wine));
+		for (KnapsackStrategy strategy : KnapsackStrategy.values()) {
+			for (int capacity = 0; capacity <= 8; capacity++) {
+				Knapsack<Jug> jugKnapsack = new Knapsack<Jug>(jugs, capacity, true, strategy);
+				assertTrue(strategy.name(), jugKnapsack.contains(free));
+			}
+		}
+	}
+
+	@Test
+	public void testParallelMatchesRolling() {
+		Random random = new Random(3);
+		for (int trial = 0; trial < 5; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, 40, 20000);
+			int capacity = 3 * ParallelKnapsackEngine.BLOCK + random.nextInt(1000);
+			Knapsack<Jug> rolling = new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.ROLLING);
+			Knapsack<Jug> parallel = new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.PARALLEL);
+			assertEquals(parallel, rolling);
+			assertEquals(parallel.getTotalWeight(), rolling.getTotalWeight());
+		}
+	}
+
+	@Test
+	public void testBranchAndBoundHugeCapacity() {
+		Random random = new Random(5);
+		for (int trial = 0; trial < 10; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, 16, 200000000);
+			int capacity = 500000000 + random.nextInt(500000000);
+			Knapsack<Jug> branchAndBound = new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.AUTO);
+			assertEquals(Jug.totalProfit(branchAndBound), bruteForceProfit(jugs, capacity), 1e-9);
+			assertTrue(branchAndBound.getTotalWeight() <= capacity);
+		}
+	}
+
+	@Test
+	public void testMeetInTheMiddleHugeCapacity() {
+		Random random = new Random(15);
+		for (int trial = 0; trial < 10; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, 16, 200000000);
+			int capacity = 500000000 + random.nextInt(500000000);
+			Knapsack<Jug> meetInTheMiddle = new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.MEET_IN_THE_MIDDLE);
+			assertEquals(Jug.totalProfit(meetInTheMiddle), bruteForceProfit(jugs, capacity), 1e-9);
+			assertTrue(meetInTheMiddle.getTotalWeight() <= capacity);
+		}
+		ArrayList<Jug> jugs = Jug.randomJugs(random, 40, Integer.MAX_VALUE / 20);
+		Knapsack<Jug> meetInTheMiddle = new Knapsack<Jug>(jugs, Integer.MAX_VALUE, true, KnapsackStrategy.MEET_IN_THE_MIDDLE);
+		Knapsack<Jug> branchAndBound = new Knapsack<Jug>(jugs, Integer.MAX_VALUE, true, KnapsackStrategy.BRANCH_AND_BOUND);
+		assertEquals(Jug.totalProfit(meetInTheMiddle), Jug.totalProfit(branchAndBound), 1e-6);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMeetInTheMiddleTooManyItems() {
+		new Knapsack<Jug>(Jug.randomJugs(new Random(16), 70, 10), 1000, true, KnapsackStrategy.MEET_IN_THE_MIDDLE);
+	}
+
+	@Test
+	public void testParetoHugeCapacity() {
+		Random random = new Random(26);
+		for (int trial = 0; trial < 5; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, 60, 100000000);
+			int capacity = 1000000000 + random.nextInt(1000000000);
+			Knapsack<Jug> pareto = new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.PARETO);
+			Knapsack<Jug> branchAndBound = new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.BRANCH_AND_BOUND);
+			assertEquals(Jug.totalProfit(pareto), Jug.totalProfit(branchAndBound), 1e-6);
+			assertTrue(pareto.getTotalWeight() <= capacity);
+		}
+	}
+
+	@Test
+	public void testOffHeapLongs() {
+		OffHeapLongs direct = OffHeapLongs.direct(100, 4);
+		OffHeapLongs mapped = OffHeapLongs.mapped(100, 4);
+		File file = mapped.getFile();
+		assertTrue(file.exists());
+		for (int i = 0; i < 100; i++) {
+			direct.putLong(i, i * 3L);
+			mapped.putDouble(i, i / 2.0);
+		}
+		for (int i = 0; i < 100; i++) {
+			assertEquals(direct.getLong(i), i * 3L);
+			assertEquals(mapped.getDouble(i), i / 2.0, 0);
+		}
+		direct.close();
+		mapped.close();
+		mapped.close();
+		assertFalse(file.exists());
+	}
+
+	@Test
+	public void testAnytimeFinishes() {
+		Random random = new Random(27);
+		for (int trial = 0; trial < 20; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, random.nextInt(30), 40);
+			int capacity = random.nextInt(200);
+			Knapsack<Jug> table = new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.TABLE);
+			Knapsack<Jug> anytime = new Knapsack<Jug>(jugs, capacity, true, 10, TimeUnit.SECONDS);
+			assertEquals(Jug.totalProfit(anytime), Jug.totalProfit(table), 1e-9);
+			assertEquals(anytime.getProfitUpperBound(), anytime.getTotalProfit());
+		}
+	}
+
+	@Test
+	public void testAnytimeTimesOut() {
+		ArrayList<Jug> jugs = correlatedJugs(new Random(28), 400);
+		long start = System.nanoTime();
+		Knapsack<Jug> anytime = new Knapsack<Jug>(jugs, 100000000, true, 20, TimeUnit.MILLISECONDS);
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+		assertTrue(anytime.getTotalWeight() <= 100000000);
+		assertTrue(anytime.getTotalProfit() > 0);
+		assertTrue(anytime.getProfitUpperBound() >= anytime.getTotalProfit());
+	}
+
+	@Test
+	public void testAnytimeInterrupted() {
+		ArrayList<Jug> jugs = correlatedJugs(new Random(29), 400);
+		Thread.currentThread().interrupt();
+		long start = System.nanoTime();
+		Knapsack<Jug> anytime = new Knapsack<Jug>(jugs, 100000000, true, 1, TimeUnit.HOURS);
+		assertTrue(Thread.interrupted());
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+		assertTrue(anytime.getTotalWeight() <= 100000000);
+		assertTrue(anytime.getTotalProfit() > 0);
+	}
+
+	@Test
+	public void testAutoBranchAndBoundIsBounded() {
+		ArrayList<Jug> jugs = correlatedJugs(new Random(30), 400);
+		long start = System.nanoTime();
+		Knapsack<Jug> auto = new Knapsack<Jug>(jugs, 100000000, true);
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+		assertTrue(auto.getTotalWeight() <= 100000000);
+		assertTrue(auto.getTotalProfit() > 0);
+		assertTrue(auto.getProfitUpperBound() >= auto.getTotalProfit());
+		Knapsack<Jug> anytime = new Knapsack<Jug>(jugs, 100000000, true, 10, TimeUnit.MILLISECONDS);
+		assertTrue(auto.getProfitUpperBound() >= anytime.getTotalProfit());
+	}
+
+	@Test
+	public void testAutoEnginesAreNotShared() {
+		ArrayList<Jug> jugs = correlatedJugs(new Random(30), 400);
+		double[] profits = new double[jugs.size()];
+		int[] weights = new int[jugs.size()];
+		for (int n = 0; n < jugs.size(); n++) {
+			profits[n] = jugs.get(n).getProfit();
+			weights[n] = jugs.get(n).getWeight();
+		}
+		KnapsackEngine truncated = KnapsackStrategy.AUTO.getEngine();
+		boolean[] take = truncated.solve(profits, weights, 100000000);
+
+		//a solve on another AUTO engine must not overwrite the outcome of the first
+		KnapsackEngine other = KnapsackStrategy.AUTO.getEngine();
+		assertTrue(other != truncated);
+		other.solve(new double[]{1}, new int[]{1}, 1);
+		assertTrue(truncated.upperBound(profits, weights, 100000000, take) > KnapsackEngine.totalProfit(profits, take));
+	}
+
+	@Test
+	public void testSelect() {
+		assertEquals(KnapsackStrategy.select(100, 1000, 1), KnapsackStrategy.ROLLING);
+		assertEquals(KnapsackStrategy.select(100, Integer.MAX_VALUE, 1), KnapsackStrategy.BRANCH_AND_BOUND);
+		assertEquals(KnapsackStrategy.select(100, Integer.MAX_VALUE, 1 << 20), KnapsackStrategy.ROLLING);
+		assertEquals(KnapsackStrategy.select(0, Integer.MAX_VALUE, 0), KnapsackStrategy.MEET_IN_THE_MIDDLE);
+		assertEquals(KnapsackStrategy.select(1, (int) KnapsackStrategy.MAX_DYNAMIC_PROGRAM_COLUMNS, 1), KnapsackStrategy.MEET_IN_THE_MIDDLE);
+		assertEquals(KnapsackStrategy.select(40, Integer.MAX_VALUE, 1, 5000), KnapsackStrategy.MEET_IN_THE_MIDDLE);
+		assertEquals(KnapsackStrategy.select(41, Integer.MAX_VALUE, 1), KnapsackStrategy.BRANCH_AND_BOUND);
+		assertEquals(KnapsackStrategy.select(100, Integer.MAX_VALUE, 1, 5000), KnapsackStrategy.PROFIT_INDEXED);
+		assertEquals(KnapsackStrategy.select(100, Integer.MAX_VALUE, 1, Long.MAX_VALUE), KnapsackStrategy.BRANCH_AND_BOUND);
+		assertEquals(KnapsackStrategy.select(100, 1000, 1, 5000), KnapsackStrategy.ROLLING);
+	}
+
+	@Test
+	public void testProfitIndexedHugeCapacity() {
+		Random random = new Random(7);
+		for (int trial = 0; trial < 5; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, 200, 100000000);
+			int capacity = 1000000000 + random.nextInt(1000000000);
+			Knapsack<Jug> profitIndexed = new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.PROFIT_INDEXED);
+			Knapsack<Jug> branchAndBound = new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.BRANCH_AND_BOUND);
+			assertEquals(Jug.totalProfit(profitIndexed), Jug.totalProfit(branchAndBound), 1e-6);
+			assertTrue(profitIndexed.getTotalWeight() <= capacity);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testProfitIndexedNonIntegralProfits() {
+		new Knapsack<Jug>(new ArrayList<Jug>(Arrays.asList(new Jug(Math.PI, 1))), 1, true, KnapsackStrategy.PROFIT_INDEXED);
+	}
+
+	@Test
+	public void testTotalProfit() {
+		knapsack = new Knapsack<Furniture>(new ArrayList<Furniture>(Arrays.asList(couch, table, dresser)), 6, true);
+		assertEquals(knapsack.getTotalProfit(), Double.valueOf(6));
+		assertEquals(knapsack.getProfitUpperBound(), Double.valueOf(6));
+	}
+
+	@Test
+	public void testApproximate() {
+		Random random = new Random(8);
+		for (int trial = 0; trial < 50; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, random.nextInt(30), 40);
+			int capacity = random.nextInt(200);
+			double epsilon = 0.05 + random.nextDouble() * 0.5;
+			double optimal = Jug.totalProfit(new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.TABLE));
+			Knapsack<Jug> approximate = new Knapsack<Jug>(jugs, capacity, true, epsilon);
+			assertTrue(approximate.getTotalProfit() >= (1 - epsilon) * optimal - 1e-9);
+			assertTrue(approximate.getProfitUpperBound() >= optimal - 1e-9);
+			assertTrue(approximate.getProfitUpperBound() <= approximate.getTotalProfit() / (1 - epsilon) + 1e-9);
+			assertTrue(approximate.getTotalWeight() <= capacity);
+		}
+	}
+
+	@Test
+	public void testApproximateManyItems() {
+		ArrayList<Jug> jugs = Jug.randomJugs(new Random(9), 2000, 1000000);
+		long start = System.nanoTime();
+		Knapsack<Jug> approximate = new Knapsack<Jug>(jugs, 300000000, true, 0.05);
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+		assertTrue(approximate.getTotalWeight() <= 300000000);
+		assertTrue(approximate.getTotalProfit() >= 0.95 * approximate.getProfitUpperBound());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testApproximateEpsilonTooSmall() {
+		new Knapsack<Jug>(Jug.randomJugs(new Random(10), 1000, 1000), 100000, true, 1e-9);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testApproximateInvalidEpsilon() {
+		new Knapsack<Furniture>(new ArrayList<Furniture>(), 6, true, 1.0);
+	}
+
+	@Test
+	public void testPrimitiveItemsAreNotBoxed() {
+		ArrayList<PrimitiveKnapsackItem> items = new ArrayList<PrimitiveKnapsackItem>();
+		for (int weight = 1; weight <= 4; weight++) {
+			final int primitiveWeight = weight;
+			items.add(new PrimitiveKnapsackItem() {
+				public Double getProfit() { throw new UnsupportedOperationException(); }
+				public Integer getWeight() { throw new UnsupportedOperationException(); }
+				public double profit() { return primitiveWeight * 2; }
+				public int weight() { return primitiveWeight; }
+			});
+		}
+		Knapsack<PrimitiveKnapsackItem> primitiveKnapsack = new Knapsack<PrimitiveKnapsackItem>(items, 5);
+		assertEquals(primitiveKnapsack.getTotalWeight(), Integer.valueOf(5));
+		assertEquals(primitiveKnapsack.getTotalProfit(), Double.valueOf(10));
+		assertEquals(items.size(), 2);
+	}
+
+	/**
+	 * Jugs whose profit is their weight plus a constant, which branch and bound prunes poorly
+	 */
+	static ArrayList<Jug> correlatedJugs(Random random, int count) {
+		ArrayList<Jug> jugs = new ArrayList<Jug>();
+		for (int i = 0; i < count; i++) {
+			int weight = 1 + random.nextInt(1000000);
+			jugs.add(new Jug(weight + 100000, weight));
+		}
+		return jugs;
+	}
+
+	static double bruteForceProfit(ArrayList<Jug> jugs, long capacity) {
+		double best = 0;
+		for (int subset = 0; subset < 1 << jugs.size(); subset++) {
+			long weight = 0;
+			double profit = 0;
+			for (int i = 0; i < jugs.size(); i++) {
+				if ((subset & (1 << i)) != 0) {
+					weight += jugs.get(i).getWeight();
+					profit += jugs.get(i).getProfit();
+				}
+			}
+			if (weight <= capacity && profit > best) best = profit;
+		}
+		return best;
+	}
+
+}
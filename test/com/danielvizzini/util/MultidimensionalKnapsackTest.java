@@ -0,0 +1,154 @@
+package com.danielvizzini.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class MultidimensionalKnapsackTest {
+
+	@Test
+	public void testMassAndVolume() {
+		Crate bricks = new Crate(10, 90, 10);
+		Crate pillows = new Crate(10, 10, 90);
+		Crate chairs = new Crate(12, 60, 60);
+		ArrayList<Crate> crates = new ArrayList<Crate>(Arrays.asList(bricks, pillows, chairs));
+		MultidimensionalKnapsack<Crate> knapsack = new MultidimensionalKnapsack<Crate>(crates, new int[]{100, 100});
+		assertTrue(knapsack.contains(bricks));
+		assertTrue(knapsack.contains(pillows));
+		assertEquals(knapsack.getTotalProfit(), Double.valueOf(20));
+		assertTrue(Arrays.equals(knapsack.getTotalResources(), new int[]{100, 100}));
+		assertEquals(crates.size(), 1);
+		assertEquals(crates.get(0), chairs);
+	}
+
+	@Test
+	public void testReplenish() {
+		ArrayList<Crate> crates = new ArrayList<Crate>(Arrays.asList(new Crate(3, 2, 2), new Crate(4, 3, 1)));
+		MultidimensionalKnapsack<Crate> knapsack = new MultidimensionalKnapsack<Crate>(crates, new int[]{3, 3}, true);
+		assertEquals(knapsack.getTotalProfit(), Double.valueOf(4));
+		assertEquals(crates.size(), 2);
+	}
+
+	@Test
+	public void testOneDimensionMatchesKnapsack() {
+		Random random = new Random(18);
+		for (int trial = 0; trial < 30; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, random.nextInt(30), 40);
+			ArrayList<Crate> crates = new ArrayList<Crate>();
+			for (Jug jug : jugs) {
+				crates.add(new Crate(jug.getProfit(), jug.getWeight()));
+			}
+			int capacity = random.nextInt(200);
+			MultidimensionalKnapsack<Crate> knapsack = new MultidimensionalKnapsack<Crate>(crates, new int[]{capacity}, true);
+			assertEquals(knapsack.getTotalProfit(), Jug.totalProfit(new Knapsack<Jug>(jugs, capacity, true, KnapsackStrategy.TABLE)), 1e-9);
+		}
+	}
+
+	@Test
+	public void testMatchesBruteForce() {
+		Random random = new Random(19);
+		for (int trial = 0; trial < 40; trial++) {
+			int dimensions = 1 + random.nextInt(4);
+			ArrayList<Crate> crates = new ArrayList<Crate>();
+			for (int n = random.nextInt(16); n > 0; n--) {
+				int[] resources = new int[dimensions];
+				for (int d = 0; d < dimensions; d++) {
+					resources[d] = random.nextInt(50);
+				}
+				crates.add(new Crate(random.nextInt(100), resources));
+			}
+			int[] capacities = new int[dimensions];
+			for (int d = 0; d < dimensions; d++) {
+				capacities[d] = random.nextInt(150);
+			}
+
+			MultidimensionalKnapsack<Crate> knapsack = new MultidimensionalKnapsack<Crate>(crates, capacities, true);
+			assertEquals(knapsack.getTotalProfit(), bruteForceProfit(crates, capacities), 1e-9);
+			assertEquals(knapsack.getProfitUpperBound(), knapsack.getTotalProfit());
+			for (int d = 0; d < dimensions; d++) {
+				assertTrue(knapsack.getTotalResources()[d] <= capacities[d]);
+			}
+		}
+	}
+
+	@Test
+	public void testManyItemsFinish() {
+		Random random = new Random(20);
+		for (int items = 40; items <= 60; items += 5) {
+			for (int trial = 0; trial < 4; trial++) {
+				ArrayList<Crate> crates = correlatedCrates(random, items, 2);
+				int[] capacities = {items * 250, items * 250};
+				long start = System.nanoTime();
+				MultidimensionalKnapsack<Crate> knapsack = new MultidimensionalKnapsack<Crate>(crates, capacities, true);
+				assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+				assertEquals(knapsack.getProfitUpperBound(), knapsack.getTotalProfit());
+				for (int d = 0; d < capacities.length; d++) {
+					assertTrue(knapsack.getTotalResources()[d] <= capacities[d]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testHardInstanceStopsWithBound() {
+		ArrayList<Crate> crates = correlatedCrates(new Random(21), 60, 5);
+		int[] capacities = {15000, 15000, 15000, 15000, 15000};
+		long start = System.nanoTime();
+		MultidimensionalKnapsack<Crate> knapsack = new MultidimensionalKnapsack<Crate>(crates, capacities, true);
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+		assertTrue(knapsack.getProfitUpperBound() >= knapsack.getTotalProfit());
+		for (int d = 0; d < capacities.length; d++) {
+			assertTrue(knapsack.getTotalResources()[d] <= capacities[d]);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMismatchedDimensions() {
+		new MultidimensionalKnapsack<Crate>(new ArrayList<Crate>(Arrays.asList(new Crate(1, 1))), new int[]{1, 1});
+	}
+
+	/**
+	 * @return crates using up to 1000 of each resource, each worth its total resources plus up to 50
+	 */
+	private static ArrayList<Crate> correlatedCrates(Random random, int count, int dimensions) {
+		ArrayList<Crate> forReturn = new ArrayList<Crate>();
+		for (int n = 0; n < count; n++) {
+			int[] resources = new int[dimensions];
+			double price = random.nextInt(50);
+			for (int d = 0; d < dimensions; d++) {
+				resources[d] = 1 + random.nextInt(1000);
+				price += resources[d];
+			}
+			forReturn.add(new Crate(price, resources));
+		}
+		return forReturn;
+	}
+
+	private static double bruteForceProfit(ArrayList<Crate> crates, int[] capacities) {
+		double best = 0;
+		for (int subset = 0; subset < 1 << crates.size(); subset++) {
+			long[] used = new long[capacities.length];
+			double profit = 0;
+			boolean fits = true;
+			for (int i = 0; i < crates.size(); i++) {
+				if ((subset & (1 << i)) != 0) {
+					profit += crates.get(i).getProfit();
+					for (int d = 0; d < capacities.length; d++) {
+						used[d] += crates.get(i).getResources()[d];
+						fits &= used[d] <= capacities[d];
+					}
+				}
+			}
+			if (fits && profit > best) best = profit;
+		}
+		return best;
+	}
+
+}
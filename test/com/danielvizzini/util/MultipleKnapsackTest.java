@@ -0,0 +1,122 @@
+package com.danielvizzini.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class MultipleKnapsackTest {
+
+	private static Furniture couch = new Furniture(4);
+	private static Furniture table = new Furniture(3);
+	private static Furniture dresser = new Furniture(3);
+	private static Furniture endTable = new Furniture(2);
+	private static Furniture lamp = new Furniture(2);
+
+	@Test
+	public void testPack() {
+		ArrayList<Furniture> packingList = new ArrayList<Furniture>(Arrays.asList(couch, table, dresser, endTable, lamp));
+		MultipleKnapsack<Furniture> fleet = new MultipleKnapsack<Furniture>(packingList, new int[]{6, 4}, true);
+		assertEquals(fleet.size(), 2);
+		assertEquals(fleet.get(0).getTotalWeight(), Integer.valueOf(6));
+		assertEquals(fleet.get(1).getTotalWeight(), Integer.valueOf(4));
+		assertEquals(fleet.getTotalWeight(), Integer.valueOf(10));
+		assertEquals(fleet.getTotalProfit(), Double.valueOf(10));
+		assertTrue(fleet.getProfitUpperBound() >= 10);
+		assertEquals(packingList.size(), 5);
+
+		fleet = new MultipleKnapsack<Furniture>(packingList, new int[]{6, 4});
+		assertEquals(fleet.getTotalWeight(), Integer.valueOf(10));
+		assertEquals(packingList.size(), 5 - fleet.get(0).size() - fleet.get(1).size());
+		for (Knapsack<Furniture> knapsack : fleet) {
+			for (Furniture furniture : knapsack) {
+				assertTrue(!packingList.contains(furniture));
+			}
+		}
+
+		int remaining = packingList.size();
+		fleet = new MultipleKnapsack<Furniture>(packingList, new int[]{});
+		assertEquals(fleet.size(), 0);
+		assertEquals(fleet.getTotalWeight(), Integer.valueOf(0));
+		assertEquals(packingList.size(), remaining);
+	}
+
+	@Test
+	public void testFeasibleAndBounded() {
+		Random random = new Random(9);
+		for (int trial = 0; trial < 30; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, random.nextInt(8), 20);
+			int[] capacities = new int[1 + random.nextInt(3)];
+			for (int k = 0; k < capacities.length; k++) {
+				capacities[k] = random.nextInt(30);
+			}
+			MultipleKnapsack<Jug> fleet = new MultipleKnapsack<Jug>(jugs, capacities, true);
+			IdentityHashMap<Jug, Boolean> seen = new IdentityHashMap<Jug, Boolean>();
+			for (int k = 0; k < capacities.length; k++) {
+				assertTrue(fleet.get(k).getTotalWeight() <= capacities[k]);
+				for (Jug jug : fleet.get(k)) {
+					assertTrue(seen.put(jug, true) == null);
+				}
+			}
+			double optimal = bruteForceProfit(jugs, capacities, 0, new int[capacities.length]);
+			assertEquals(fleet.getTotalProfit(), optimal, 1e-9);
+			assertEquals(fleet.getProfitUpperBound(), optimal, 1e-9);
+		}
+	}
+
+	@Test
+	public void testBeatsSmallestFirst() {
+		ArrayList<Jug> jugs = new ArrayList<Jug>(Arrays.asList(new Jug(3.0, 4), new Jug(1.0, 10), new Jug(6.0, 3), new Jug(4.0, 5)));
+		MultipleKnapsack<Jug> fleet = new MultipleKnapsack<Jug>(jugs, new int[]{11, 12}, true);
+		assertEquals(fleet.getTotalProfit(), Double.valueOf(14));
+		assertEquals(fleet.getProfitUpperBound(), Double.valueOf(14));
+	}
+
+	@Test
+	public void testTwoTrucksOptimal() {
+		Random random = new Random(19);
+		for (int trial = 0; trial < 1000; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, random.nextInt(9), 12);
+			int[] capacities = {random.nextInt(25), random.nextInt(25)};
+			MultipleKnapsack<Jug> fleet = new MultipleKnapsack<Jug>(jugs, capacities, true);
+			assertEquals(fleet.getTotalProfit(), bruteForceProfit(jugs, capacities, 0, new int[capacities.length]), 1e-9);
+		}
+	}
+
+	@Test
+	public void testManyItemsFinish() {
+		Random random = new Random(20);
+		for (int trial = 0; trial < 5; trial++) {
+			ArrayList<Jug> jugs = Jug.randomJugs(random, 40 + random.nextInt(21), 1000);
+			int[] capacities = {3000 + random.nextInt(3000), 3000 + random.nextInt(3000), 3000 + random.nextInt(3000)};
+			long start = System.nanoTime();
+			MultipleKnapsack<Jug> fleet = new MultipleKnapsack<Jug>(jugs, capacities, true);
+			assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+			for (int k = 0; k < capacities.length; k++) {
+				assertTrue(fleet.get(k).getTotalWeight() <= capacities[k]);
+			}
+			assertTrue(fleet.getProfitUpperBound() >= fleet.getTotalProfit());
+		}
+	}
+
+	private static double bruteForceProfit(ArrayList<Jug> jugs, int[] capacities, int n, int[] used) {
+		if (n == jugs.size()) return 0;
+		double best = bruteForceProfit(jugs, capacities, n + 1, used);
+		for (int k = 0; k < capacities.length; k++) {
+			if (used[k] + jugs.get(n).getWeight() <= capacities[k]) {
+				used[k] += jugs.get(n).getWeight();
+				best = Math.max(best, jugs.get(n).getProfit() + bruteForceProfit(jugs, capacities, n + 1, used));
+				used[k] -= jugs.get(n).getWeight();
+			}
+		}
+		return best;
+	}
+
+}
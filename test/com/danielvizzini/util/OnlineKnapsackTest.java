@@ -0,0 +1,66 @@
+package com.danielvizzini.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class OnlineKnapsackTest {
+
+	@Test
+	public void testFixedThreshold() {
+		OnlineKnapsack knapsack = new OnlineKnapsack(10, 2);
+		assertTrue(knapsack.offer(new Jug(8, 4)));
+		assertFalse(knapsack.offer(new Jug(3, 2)));
+		assertTrue(knapsack.offer(new Jug(12, 5)));
+		assertFalse(knapsack.offer(new Jug(100, 2)));
+		assertTrue(knapsack.offer(new Jug(1, 0)));
+		assertEquals(knapsack.getTotalWeight(), Integer.valueOf(9));
+		assertEquals(knapsack.getTotalProfit(), Double.valueOf(21));
+		assertEquals(knapsack.getAcceptedCount(), 3);
+		assertEquals(knapsack.getRejectedCount(), 2);
+	}
+
+	@Test
+	public void testThresholdRises() {
+		OnlineKnapsack knapsack = new OnlineKnapsack(100, 1, 20);
+		assertEquals(knapsack.getThreshold(), 1, 0);
+		knapsack.offer(25, 25);
+		assertEquals(knapsack.getThreshold(), 1, 0);
+		knapsack.offer(1000, 50);
+		assertTrue(knapsack.getThreshold() > 1);
+		assertTrue(knapsack.getThreshold() < 20);
+		knapsack.offer(500, 25);
+		assertEquals(knapsack.getThreshold(), 20, 1e-9);
+	}
+
+	@Test
+	public void testCompetitiveRatio() {
+		Random random = new Random(20);
+		for (int trial = 0; trial < 5; trial++) {
+			int capacity = 300;
+			OnlineKnapsack knapsack = new OnlineKnapsack(capacity, 1, 8);
+			ArrayList<Jug> jugs = new ArrayList<Jug>();
+			for (int i = 0; i < 1000; i++) {
+				int weight = 1 + random.nextInt(3);
+				Jug jug = new Jug(weight * (1 + 7 * random.nextDouble()), weight);
+				jugs.add(jug);
+				knapsack.offer(jug);
+			}
+			assertTrue(knapsack.getTotalWeight() <= capacity);
+			double optimal = Jug.totalProfit(new Knapsack<Jug>(jugs, capacity, true));
+			assertTrue(knapsack.getTotalProfit() >= optimal / (1 + Math.log(8)));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidRatios() {
+		new OnlineKnapsack(10, 2, 1);
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.danielvizzini.util;
+
+class Pallet implements BoundedKnapsackItem {
+	
+	private double price;
+	private int weight;
+	private int quantity;
+
+	public Integer getWeight() {
+		return this.weight;
+	}
+	
+	public Double getProfit() {
+		return this.price;
+	}
+	
+	public Integer getQuantity() {
+		return this.quantity;
+	}
+	
+	Pallet(double price, int weight, int quantity) {
+		this.price = price;
+		this.weight = weight;
+		this.quantity = quantity;
+	}
+	
+}